@@ -2,6 +2,7 @@ import com.xpdustry.toxopid.extension.anukeXpdustry
 import com.xpdustry.toxopid.spec.ModMetadata
 import com.xpdustry.toxopid.spec.ModPlatform
 import com.xpdustry.toxopid.task.MindustryExec
+import groovy.json.JsonSlurper
 import net.ltgt.gradle.errorprone.CheckSeverity
 import net.ltgt.gradle.errorprone.errorprone
 
@@ -11,6 +12,7 @@ plugins {
     id("com.gradleup.shadow") version "9.4.1"
     id("com.xpdustry.toxopid") version "4.2.0"
     id("net.ltgt.errorprone") version "5.1.0"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 val metadata = ModMetadata.fromJson(rootProject.file("mod.json"))
@@ -48,6 +50,8 @@ dependencies {
     api("org.slf4j:jul-to-slf4j:2.0.17")
     annotationProcessor("com.uber.nullaway:nullaway:0.13.3")
     errorprone("com.google.errorprone:error_prone_core:2.49.0")
+    jmh(toxopid.dependencies.mindustryCore)
+    jmh(toxopid.dependencies.arcCore)
 }
 
 indra {
@@ -87,6 +91,12 @@ indra {
     }
 }
 
+sourceSets.main {
+    multirelease {
+        alternateVersions(9)
+    }
+}
+
 val generateResources by tasks.registering {
     inputs.property("metadata", metadata)
     outputs.files(fileTree(temporaryDir))
@@ -96,6 +106,9 @@ val generateResources by tasks.registering {
 }
 
 tasks.shadowJar {
+    manifest {
+        attributes("Multi-Release" to "true", "Main-Class" to "com.xpdustry.slf4md.BinaryLogDecoder")
+    }
     from(generateResources)
     from(rootProject.file("LICENSE.md")) { into("META-INF") }
 }
@@ -113,7 +126,8 @@ tasks.withType<JavaCompile> {
     options.errorprone {
         disableWarningsInGeneratedCode = true
         disable("MissingSummary", "InlineMeSuggester")
-        check("NullAway", if (name.contains("test", ignoreCase = true)) CheckSeverity.OFF else CheckSeverity.ERROR)
+        val strict = !name.contains("test", ignoreCase = true) && !name.contains("jmh", ignoreCase = true)
+        check("NullAway", if (strict) CheckSeverity.ERROR else CheckSeverity.OFF)
         option("NullAway:AnnotatedPackages", "com.xpdustry.slf4md")
     }
 }
@@ -121,3 +135,60 @@ tasks.withType<JavaCompile> {
 tasks.withType<MindustryExec> {
     jvmArguments.add("--enable-native-access=ALL-UNNAMED")
 }
+
+jmh {
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
+
+val jmhBaseline = layout.projectDirectory.file("src/jmh/baseline.json")
+
+tasks.register<Copy>("jmhBaseline") {
+    group = "benchmark"
+    description = "Runs the benchmarks and stores the results as the baseline of jmhCompare."
+    from(tasks.jmh.flatMap { it.resultsFile })
+    into(jmhBaseline.asFile.parentFile)
+    rename { jmhBaseline.asFile.name }
+}
+
+tasks.register("jmhCompare") {
+    group = "benchmark"
+    description = "Runs the benchmarks and compares the results with the stored baseline."
+    dependsOn(tasks.jmh)
+    val results = tasks.jmh.flatMap { it.resultsFile }
+    val baseline = jmhBaseline.asFile
+    doLast {
+        if (!baseline.exists()) {
+            throw GradleException("No baseline at $baseline, run jmhBaseline first")
+        }
+        val previous = readJmhScores(baseline)
+        readJmhScores(results.get().asFile).forEach { (name, current) ->
+            val base = previous[name]
+            if (base == null) {
+                println(String.format("%-90s %14.3f %s (new)", name, current.first, current.second))
+            } else {
+                val delta = (current.first - base.first) / base.first * 100.0
+                println(String.format("%-90s %14.3f %s (%+.1f%%)", name, current.first, current.second, delta))
+            }
+        }
+    }
+}
+
+// Maps every benchmark and its parameters to the score of its primary metric and of the normalized allocation rate
+fun readJmhScores(file: File): Map<String, Pair<Double, String>> {
+    val scores = linkedMapOf<String, Pair<Double, String>>()
+    @Suppress("UNCHECKED_CAST")
+    val entries = JsonSlurper().parse(file) as List<Map<String, Any?>>
+    for (entry in entries) {
+        val params = (entry["params"] as Map<*, *>?)?.entries?.joinToString(",", "[", "]") { "${it.key}=${it.value}" }
+        val name = "${entry["benchmark"]}${params ?: ""}"
+        val primary = entry["primaryMetric"] as Map<*, *>
+        scores[name] = (primary["score"] as Number).toDouble() to primary["scoreUnit"].toString()
+        val allocation = (entry["secondaryMetrics"] as Map<*, *>?)?.get("gc.alloc.rate.norm") as Map<*, *>?
+        if (allocation != null) {
+            scores["$name:alloc"] = (allocation["score"] as Number).toDouble() to allocation["scoreUnit"].toString()
+        }
+    }
+    return scores
+}
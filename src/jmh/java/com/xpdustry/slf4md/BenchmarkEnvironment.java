@@ -0,0 +1,84 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import arc.files.Fi;
+import arc.util.Log;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import mindustry.Vars;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Shared setup of the benchmarks, replaces the Mindustry environment the logger normally runs in.
+ */
+final class BenchmarkEnvironment {
+
+    private static boolean initialized = false;
+
+    private BenchmarkEnvironment() {}
+
+    /**
+     * Prepares the game state read by SLF4MD, must be called before any logger is created.
+     *
+     * @param headless whether the output is rendered with colors like on servers, or without them like on desktop
+     * @param blackhole consumes the lines reaching the console
+     */
+    static synchronized void setup(final boolean headless, final Blackhole blackhole) {
+        Vars.headless = headless;
+        // Arc converts color codes to ANSI on servers and strips them everywhere else
+        Log.useColors = headless;
+        Log.level = Log.LogLevel.info;
+        Log.logger = new ConsumingLogHandler(blackhole);
+        if (BenchmarkEnvironment.initialized) {
+            return;
+        }
+        try {
+            Vars.modDirectory = new Fi(Files.createTempDirectory("slf4md-jmh").toFile());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        BenchmarkEnvironment.initialized = true;
+    }
+
+    /**
+     * Stands in for the console, formats the line like Arc does and hands it to the blackhole of the benchmark.
+     */
+    static final class ConsumingLogHandler implements Log.LogHandler {
+
+        private final Blackhole blackhole;
+
+        ConsumingLogHandler(final Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void log(final Log.LogLevel level, final String text) {
+            this.blackhole.consume(Log.format(text));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calls below the enabled level, which should cost a level cache check and nothing else.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisabledLoggingBenchmark {
+
+    private Logger logger;
+    private Object argument;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        BenchmarkEnvironment.setup(true, blackhole);
+        this.logger = LoggerFactory.getLogger(DisabledLoggingBenchmark.class);
+        this.argument = 42;
+    }
+
+    @Benchmark
+    public boolean isDebugEnabled() {
+        return this.logger.isDebugEnabled();
+    }
+
+    @Benchmark
+    public void debugArgument() {
+        this.logger.debug("Value is {}", this.argument);
+    }
+
+    @Benchmark
+    public void debugVarargs() {
+        this.logger.debug("Values are {}, {}, {} and {}", this.argument, this.argument, this.argument, this.argument);
+    }
+
+    @Benchmark
+    public void traceGuarded(final Blackhole blackhole) {
+        if (this.logger.isTraceEnabled()) {
+            blackhole.consume(this.argument);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calls that reach the console, from formatting the message to handing it over to Arc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnabledLoggingBenchmark {
+
+    // true renders with colors like a server console, false renders without them like the desktop client
+    @Param({"true", "false"})
+    public boolean headless;
+
+    private Logger logger;
+    private Object first;
+    private Object second;
+    private Object third;
+    private Throwable throwable;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        BenchmarkEnvironment.setup(this.headless, blackhole);
+        this.logger = LoggerFactory.getLogger(EnabledLoggingBenchmark.class);
+        this.first = 42;
+        this.second = "second";
+        this.third = 3.14D;
+        // Created here so the benchmarks measure the rendering of the stack trace, not its capture
+        this.throwable = new IllegalStateException("Benchmark failure");
+    }
+
+    @Benchmark
+    public void noArgument() {
+        this.logger.info("Server started");
+    }
+
+    @Benchmark
+    public void oneArgument() {
+        this.logger.info("Player {} joined", this.first);
+    }
+
+    @Benchmark
+    public void threeArguments() {
+        this.logger.info("Player {} joined {} at {}", this.first, this.second, this.third);
+    }
+
+    @Benchmark
+    public void varargs() {
+        this.logger.info(
+                "Values are {}, {}, {}, {} and {}", this.first, this.second, this.third, this.first, this.second);
+    }
+
+    @Benchmark
+    public void noArgumentThrowable() {
+        this.logger.info("Server failed", this.throwable);
+    }
+
+    @Benchmark
+    public void oneArgumentThrowable() {
+        this.logger.info("Player {} failed", this.first, this.throwable);
+    }
+
+    @Benchmark
+    public void threeArgumentsThrowable() {
+        this.logger.info("Player {} failed {} at {}", this.first, this.second, this.third, this.throwable);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+
+/**
+ * Logger lookups, cached ones and ones resolving a name never seen before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerFactoryBenchmark {
+
+    private static final int MISS_NAMES = 1 << 16;
+
+    private MindustryLoggerFactory factory;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        BenchmarkEnvironment.setup(true, blackhole);
+        this.names = new String[MISS_NAMES];
+        for (int i = 0; i < MISS_NAMES; i++) {
+            this.names[i] = "benchmark-logger-" + i;
+        }
+    }
+
+    // A fresh factory per iteration, the hits are warmed up so only the miss benchmark resolves loggers
+    @Setup(Level.Iteration)
+    public void resetMisses() {
+        this.factory = new MindustryLoggerFactory();
+        this.factory.getLogger(LoggerFactoryBenchmark.class.getName());
+        this.factory.getLogger("benchmark-logger");
+        this.next = 0;
+    }
+
+    @Benchmark
+    public Logger classNameHit() {
+        return this.factory.getLogger(LoggerFactoryBenchmark.class.getName());
+    }
+
+    @Benchmark
+    public Logger plainNameHit() {
+        return this.factory.getLogger("benchmark-logger");
+    }
+
+    @Benchmark
+    public Logger miss() {
+        final int index = this.next++ & (MISS_NAMES - 1);
+        if (index == MISS_NAMES - 1) {
+            // Wrapped around, start over with an empty cache so the names miss again
+            this.factory = new MindustryLoggerFactory();
+        }
+        return this.factory.getLogger(this.names[index]);
+    }
+}
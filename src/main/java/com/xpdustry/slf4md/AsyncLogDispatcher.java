@@ -0,0 +1,289 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import arc.util.Log;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+
+/**
+ * Hands log events from the caller threads to a single writer thread through a preallocated bounded ring buffer.
+ * Events are captured as is along with a snapshot of the MDC, the arguments are only formatted by the writer thread.
+ */
+final class AsyncLogDispatcher {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    private final Slot[] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+    private final Condition notFull = this.lock.newCondition();
+    private final Condition drained = this.lock.newCondition();
+    private final Thread writer;
+    private volatile AsyncOverflowPolicy policy;
+    private int head = 0;
+    private int count = 0;
+    private long dropped = 0L;
+    private boolean running = true;
+    private boolean terminated = false;
+
+    AsyncLogDispatcher(final int capacity, final AsyncOverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.slots[i] = new Slot();
+        }
+        this.policy = policy;
+        this.writer = new Thread(this::run, "SLF4MD-Async-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a log event, returns false if the caller must write it synchronously instead.
+     */
+    boolean enqueue(
+            final MindustryLogger logger,
+            final Level level,
+            final String pattern,
+            final @Nullable Object @Nullable [] arguments,
+            final @Nullable Throwable throwable,
+            final @Nullable List<KeyValuePair> keyValues,
+            final Map<String, String> context,
+            final @Nullable String thread,
+            final @Nullable String location,
+            final long timestamp) {
+        // The writer thread logging through SLF4J would deadlock itself on a full buffer
+        if (Thread.currentThread() == this.writer) {
+            return false;
+        }
+        this.lock.lock();
+        try {
+            while (this.running && this.count == this.slots.length) {
+                final AsyncOverflowPolicy policy = this.policy;
+                if (policy == AsyncOverflowPolicy.DROP_OLDEST) {
+                    this.slots[this.head].clear();
+                    this.head = (this.head + 1) % this.slots.length;
+                    this.count--;
+                    this.dropped++;
+                } else if (policy == AsyncOverflowPolicy.DROP_BELOW_WARN && level.toInt() < Level.WARN.toInt()) {
+                    this.dropped++;
+                    return true;
+                } else {
+                    this.notFull.awaitUninterruptibly();
+                }
+            }
+            if (!this.running) {
+                // Written synchronously only once the queued events are, so they keep their order
+                this.awaitDrained();
+                return false;
+            }
+            final Slot slot = this.slots[(this.head + this.count) % this.slots.length];
+            slot.logger = logger;
+            slot.level = level;
+            slot.pattern = pattern;
+            slot.arguments = arguments;
+            slot.throwable = throwable;
+            slot.keyValues = keyValues;
+            slot.context = context;
+            slot.thread = thread;
+            slot.location = location;
+            slot.timestamp = timestamp;
+            this.count++;
+            this.notEmpty.signal();
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    int getQueueDepth() {
+        this.lock.lock();
+        try {
+            return this.count;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    int getCapacity() {
+        return this.slots.length;
+    }
+
+    long getDropped() {
+        this.lock.lock();
+        try {
+            return this.dropped;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    AsyncOverflowPolicy getPolicy() {
+        return this.policy;
+    }
+
+    void setPolicy(final AsyncOverflowPolicy policy) {
+        this.lock.lock();
+        try {
+            this.policy = policy;
+            // Blocked callers may be able to drop their event now
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting events and waits for the writer thread to flush the remaining ones. The events logged in the
+     * meantime wait for the flush too, then are written synchronously.
+     */
+    void shutdown() {
+        this.lock.lock();
+        try {
+            if (!this.running) {
+                return;
+            }
+            this.running = false;
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        if (Thread.currentThread() == this.writer) {
+            return;
+        }
+        try {
+            this.writer.join(AsyncLogDispatcher.SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Called with the lock held, gives up after the shutdown timeout like shutdown itself
+    private void awaitDrained() {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(AsyncLogDispatcher.SHUTDOWN_TIMEOUT_MILLIS);
+        while (!this.terminated && remaining > 0L) {
+            try {
+                remaining = this.drained.awaitNanos(remaining);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            final MindustryLogger logger;
+            final Level level;
+            final String pattern;
+            final @Nullable Object @Nullable [] arguments;
+            final @Nullable Throwable throwable;
+            final @Nullable List<KeyValuePair> keyValues;
+            final @Nullable Map<String, String> context;
+            final @Nullable String thread;
+            final @Nullable String location;
+            final long timestamp;
+
+            this.lock.lock();
+            try {
+                while (this.running && this.count == 0) {
+                    try {
+                        this.notEmpty.await(1, TimeUnit.SECONDS);
+                    } catch (final InterruptedException ignored) {
+                        // Only shutdown stops the writer
+                    }
+                }
+                if (this.count == 0) {
+                    this.terminated = true;
+                    this.drained.signalAll();
+                    return;
+                }
+                final Slot slot = this.slots[this.head];
+                logger = slot.logger;
+                level = slot.level;
+                pattern = slot.pattern;
+                arguments = slot.arguments;
+                throwable = slot.throwable;
+                keyValues = slot.keyValues;
+                context = slot.context;
+                thread = slot.thread;
+                location = slot.location;
+                timestamp = slot.timestamp;
+                slot.clear();
+                this.head = (this.head + 1) % this.slots.length;
+                this.count--;
+                this.notFull.signal();
+            } finally {
+                this.lock.unlock();
+            }
+
+            if (logger == null || level == null || pattern == null || context == null) {
+                continue;
+            }
+            try {
+                logger.write(level, pattern, arguments, throwable, keyValues, context, thread, location, timestamp);
+            } catch (final Throwable e) {
+                Log.err("[SLF4MD] Failed to write asynchronous log event", e);
+            }
+        }
+    }
+
+    private static final class Slot {
+
+        private @Nullable MindustryLogger logger;
+        private @Nullable Level level;
+        private @Nullable String pattern;
+        private @Nullable Object @Nullable [] arguments;
+        private @Nullable Throwable throwable;
+        private @Nullable List<KeyValuePair> keyValues;
+        private @Nullable Map<String, String> context;
+        private @Nullable String thread;
+        private @Nullable String location;
+        private long timestamp;
+
+        private void clear() {
+            this.logger = null;
+            this.level = null;
+            this.pattern = null;
+            this.arguments = null;
+            this.throwable = null;
+            this.keyValues = null;
+            this.context = null;
+            this.thread = null;
+            this.location = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.Locale;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * What the asynchronous logging mode does when its buffer is full.
+ */
+public enum AsyncOverflowPolicy {
+
+    /**
+     * Block the caller until the writer thread frees a slot.
+     */
+    BLOCK,
+
+    /**
+     * Drop events below {@code WARN}, block for the others.
+     */
+    DROP_BELOW_WARN,
+
+    /**
+     * Drop the oldest queued event to make room.
+     */
+    DROP_OLDEST;
+
+    public String getConfigName() {
+        return this.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static @Nullable AsyncOverflowPolicy fromConfigName(final String name) {
+        for (final AsyncOverflowPolicy policy : AsyncOverflowPolicy.values()) {
+            if (policy.getConfigName().equalsIgnoreCase(name)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import arc.util.Log;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.event.Level;
+
+/**
+ * Writes log events to memory-mapped segment files in a compact binary format. Each segment starts with a header
+ * and is a sequence of records. Logger names and message patterns are written once per segment as dictionary
+ * records, events only refer to them by id and store their arguments already rendered as strings.
+ *
+ * <pre>
+ * header:   magic "SLF4MDB1", base timestamp (int64)
+ * logger:   0x01, id (varint), name (string), mod (string, empty if none)
+ * template: 0x02, id (varint), pattern (string)
+ * event:    0x03, timestamp delta (zigzag varint), level ordinal (byte), logger id (varint), template id (varint),
+ *           argument count (varint), arguments (string...), has throwable (byte), [stack trace (string)]
+ * end:      0x00, the unused tail of a segment is zero-filled
+ * string:   UTF-8 length (varint), UTF-8 bytes
+ * </pre>
+ *
+ * Segments are self-contained so they can be decoded or deleted independently, see {@link BinaryLogDecoder}.
+ */
+final class BinaryEventLog {
+
+    static final byte[] MAGIC = "SLF4MDB1".getBytes(StandardCharsets.US_ASCII);
+    static final String EXTENSION = ".slf4mdb";
+    static final byte END_RECORD = 0x00;
+    static final byte LOGGER_RECORD = 0x01;
+    static final byte TEMPLATE_RECORD = 0x02;
+    static final byte EVENT_RECORD = 0x03;
+
+    private static final DateTimeFormatter SEGMENT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss");
+    private static final int HEADER_SIZE = MAGIC.length + Long.BYTES;
+    private static final int SCRATCH_SIZE = 1024;
+    // A record with a huge stack trace shouldn't keep its buffer around
+    private static final int MAX_RETAINED_SCRATCH_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final String name;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final Map<String, Integer> loggers = new HashMap<>();
+    private final Map<String, Integer> templates = new HashMap<>();
+    private final StringBuilder argument = new StringBuilder(64);
+    private ByteBuffer scratch = ByteBuffer.allocate(SCRATCH_SIZE);
+    private @Nullable FileChannel channel = null;
+    private @Nullable MappedByteBuffer segment = null;
+    private @Nullable Path segmentFile = null;
+    private long lastTimestamp = 0L;
+    private long dropped = 0L;
+    private boolean running = true;
+
+    BinaryEventLog(final Path directory, final String name, final int segmentSize, final int maxSegments) {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("The segment size must be at least 1024 bytes, got " + segmentSize);
+        }
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    synchronized void append(
+            final long timestamp,
+            final Level level,
+            final String logger,
+            final @Nullable String mod,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            final int argumentCount,
+            final @Nullable Throwable throwable) {
+        if (!this.running) {
+            return;
+        }
+        try {
+            this.write(timestamp, level, logger, mod, messagePattern, arguments, argumentCount, throwable);
+        } finally {
+            if (this.scratch.capacity() > MAX_RETAINED_SCRATCH_SIZE) {
+                this.scratch = ByteBuffer.allocate(SCRATCH_SIZE);
+            }
+        }
+    }
+
+    private void write(
+            final long timestamp,
+            final Level level,
+            final String logger,
+            final @Nullable String mod,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            final int argumentCount,
+            final @Nullable Throwable throwable) {
+        final String stackTrace = throwable == null ? null : BinaryEventLog.renderStackTrace(throwable);
+        // Retried once on a fresh segment, whose dictionaries are empty
+        for (int attempt = 0; attempt < 2; attempt++) {
+            final MappedByteBuffer segment;
+            try {
+                segment = this.open();
+            } catch (final IOException e) {
+                Log.err("[SLF4MD] Failed to open a binary log segment in " + this.directory, e);
+                this.dropped++;
+                return;
+            }
+            this.scratch.clear();
+            final boolean newLogger = !this.loggers.containsKey(logger);
+            final boolean newTemplate = !this.templates.containsKey(messagePattern);
+            final int loggerId = this.getLoggerId(logger, mod);
+            final int templateId = this.getTemplateId(messagePattern);
+            this.putByte(EVENT_RECORD);
+            final long delta = timestamp - this.lastTimestamp;
+            // Zigzag encoded, the async writer and clock adjustments can make it negative
+            this.putVarLong(delta << 1 ^ delta >> 63);
+            this.putByte((byte) level.ordinal());
+            this.putVarLong(loggerId);
+            this.putVarLong(templateId);
+            this.putVarLong(argumentCount);
+            for (int i = 0; i < argumentCount; i++) {
+                this.argument.setLength(0);
+                MessageTemplate.appendArgument(this.argument, arguments == null ? null : arguments[i]);
+                this.putString(this.argument.toString());
+            }
+            this.putByte((byte) (stackTrace == null ? 0 : 1));
+            if (stackTrace != null) {
+                this.putString(stackTrace);
+            }
+
+            this.scratch.flip();
+            if (this.scratch.remaining() <= segment.remaining()) {
+                segment.put(this.scratch);
+                this.lastTimestamp = timestamp;
+                return;
+            }
+            // Forget the ids defined by the record that didn't fit
+            if (newLogger) {
+                this.loggers.remove(logger);
+            }
+            if (newTemplate) {
+                this.templates.remove(messagePattern);
+            }
+            if (attempt == 0) {
+                // Its dictionary records are written again on a fresh segment, those ids take a single byte there
+                int freshSize = this.scratch.remaining();
+                if (!newLogger) {
+                    freshSize += 2
+                            + BinaryEventLog.getStringSize(logger)
+                            + BinaryEventLog.getStringSize(mod == null ? "" : mod);
+                }
+                if (!newTemplate) {
+                    freshSize += 2 + BinaryEventLog.getStringSize(messagePattern);
+                }
+                if (freshSize > this.segmentSize - HEADER_SIZE) {
+                    // Wouldn't fit an empty segment either, don't throw away the current one for it
+                    break;
+                }
+                this.rotate();
+            }
+        }
+        this.dropped++;
+    }
+
+    synchronized @Nullable Path getSegmentFile() {
+        return this.segmentFile;
+    }
+
+    synchronized long getSegmentPosition() {
+        final MappedByteBuffer segment = this.segment;
+        return segment == null ? 0L : segment.position();
+    }
+
+    synchronized long getDropped() {
+        return this.dropped;
+    }
+
+    synchronized void shutdown() {
+        this.running = false;
+        this.close();
+    }
+
+    private int getLoggerId(final String logger, final @Nullable String mod) {
+        final Integer id = this.loggers.get(logger);
+        if (id != null) {
+            return id;
+        }
+        final int created = this.loggers.size();
+        this.loggers.put(logger, created);
+        this.putByte(LOGGER_RECORD);
+        this.putVarLong(created);
+        this.putString(logger);
+        this.putString(mod == null ? "" : mod);
+        return created;
+    }
+
+    private int getTemplateId(final String messagePattern) {
+        final Integer id = this.templates.get(messagePattern);
+        if (id != null) {
+            return id;
+        }
+        final int created = this.templates.size();
+        this.templates.put(messagePattern, created);
+        this.putByte(TEMPLATE_RECORD);
+        this.putVarLong(created);
+        this.putString(messagePattern);
+        return created;
+    }
+
+    private MappedByteBuffer open() throws IOException {
+        MappedByteBuffer segment = this.segment;
+        if (segment != null) {
+            return segment;
+        }
+        Files.createDirectories(this.directory);
+        final String stamp = BinaryEventLog.SEGMENT_FORMAT.format(Instant.now().atZone(ZoneId.systemDefault()));
+        Path file = this.directory.resolve(this.name + '-' + stamp + EXTENSION);
+        for (int i = 1; Files.exists(file); i++) {
+            file = this.directory.resolve(this.name + '-' + stamp + '-' + i + EXTENSION);
+        }
+        final FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0L, this.segmentSize);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.lastTimestamp = System.currentTimeMillis();
+        segment.put(MAGIC);
+        segment.putLong(this.lastTimestamp);
+        this.channel = channel;
+        this.segment = segment;
+        this.segmentFile = file;
+        return segment;
+    }
+
+    /**
+     * Detaches the full segment and leaves flushing it to the scheduler, the logging thread only has to map the
+     * next segment.
+     */
+    private void rotate() {
+        final FileChannel channel = this.channel;
+        final MappedByteBuffer segment = this.segment;
+        this.detach();
+        MindustryLoggerMod.getScheduler().execute(() -> {
+            if (channel != null && segment != null) {
+                BinaryEventLog.finish(channel, segment);
+            }
+            this.prune();
+        });
+    }
+
+    private void close() {
+        final FileChannel channel = this.channel;
+        final MappedByteBuffer segment = this.segment;
+        this.detach();
+        if (channel != null && segment != null) {
+            BinaryEventLog.finish(channel, segment);
+        }
+    }
+
+    private void detach() {
+        this.channel = null;
+        this.segment = null;
+        this.segmentFile = null;
+        this.loggers.clear();
+        this.templates.clear();
+    }
+
+    private static void finish(final FileChannel channel, final MappedByteBuffer segment) {
+        try {
+            segment.force();
+            try {
+                channel.truncate(segment.position());
+            } catch (final IOException ignored) {
+                // Some platforms can't truncate a mapped file, the zero-filled tail reads as an end record
+            }
+            channel.close();
+        } catch (final IOException e) {
+            Log.err("[SLF4MD] Failed to close the binary log segment", e);
+        }
+    }
+
+    private void prune() {
+        if (this.maxSegments <= 0) {
+            return;
+        }
+        final List<Path> segments = new ArrayList<>();
+        try (final DirectoryStream<Path> stream =
+                Files.newDirectoryStream(this.directory, this.name + "-*" + EXTENSION)) {
+            for (final Path path : stream) {
+                segments.add(path);
+            }
+        } catch (final IOException e) {
+            Log.err("[SLF4MD] Failed to list the binary log segments in " + this.directory, e);
+            return;
+        }
+        // Keep the segment being written, it was created last
+        Collections.sort(segments, (a, b) -> {
+            try {
+                return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+            } catch (final IOException e) {
+                return a.compareTo(b);
+            }
+        });
+        for (int i = 0; i < segments.size() - this.maxSegments; i++) {
+            try {
+                Files.deleteIfExists(segments.get(i));
+            } catch (final IOException e) {
+                Log.err("[SLF4MD] Failed to delete the binary log segment " + segments.get(i), e);
+            }
+        }
+    }
+
+    private static String renderStackTrace(final Throwable throwable) {
+        final FormattingBuffer buffer = FormattingBuffer.acquire();
+        try {
+            ThrowableRenderer.render(buffer.builder(), throwable);
+            return buffer.builder().toString();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private void ensureCapacity(final int bytes) {
+        if (this.scratch.remaining() < bytes) {
+            final ByteBuffer grown =
+                    ByteBuffer.allocate(Math.max(this.scratch.capacity() * 2, this.scratch.position() + bytes));
+            this.scratch.flip();
+            grown.put(this.scratch);
+            this.scratch = grown;
+        }
+    }
+
+    private void putByte(final byte value) {
+        this.ensureCapacity(1);
+        this.scratch.put(value);
+    }
+
+    private void putVarLong(long value) {
+        this.ensureCapacity(10);
+        while ((value & ~0x7FL) != 0L) {
+            this.scratch.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        this.scratch.put((byte) value);
+    }
+
+    private static int getStringSize(final String value) {
+        final int length = value.getBytes(StandardCharsets.UTF_8).length;
+        int size = length + 1;
+        for (int rest = length >>> 7; rest != 0; rest >>>= 7) {
+            size++;
+        }
+        return size;
+    }
+
+    private void putString(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.putVarLong(bytes.length);
+        this.ensureCapacity(bytes.length);
+        this.scratch.put(bytes);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Renders binary log segments back to the text format of the file sink. Only depends on the JDK and SLF4J, so it
+ * can run outside the game with {@code java -jar slf4md.jar [--show-class-name] <segment>...}.
+ */
+public final class BinaryLogDecoder {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final Writer output;
+    private final boolean showClassName;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private BinaryLogDecoder(final Writer output, final boolean showClassName) {
+        this.output = output;
+        this.showClassName = showClassName;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        boolean showClassName = false;
+        final List<Path> segments = new ArrayList<>();
+        for (final String arg : args) {
+            if (arg.equals("--show-class-name")) {
+                showClassName = true;
+            } else {
+                segments.add(Paths.get(arg));
+            }
+        }
+        if (segments.isEmpty()) {
+            System.err.println("Usage: java -jar slf4md.jar [--show-class-name] <segment>...");
+            System.exit(1);
+            return;
+        }
+        final Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        final BinaryLogDecoder decoder = new BinaryLogDecoder(output, showClassName);
+        boolean failed = false;
+        for (final Path segment : segments) {
+            try {
+                decoder.decode(segment);
+            } catch (final IOException | RuntimeException e) {
+                output.flush();
+                System.err.println("Failed to decode " + segment + ": " + e);
+                failed = true;
+            }
+        }
+        output.flush();
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private void decode(final Path file) throws IOException {
+        final ByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        }
+        final byte[] magic = new byte[BinaryEventLog.MAGIC.length];
+        buffer.get(magic);
+        for (int i = 0; i < magic.length; i++) {
+            if (magic[i] != BinaryEventLog.MAGIC[i]) {
+                throw new IOException("Not a SLF4MD binary log segment");
+            }
+        }
+        long timestamp = buffer.getLong();
+        final List<String> loggers = new ArrayList<>();
+        final List<String> mods = new ArrayList<>();
+        final List<String> templates = new ArrayList<>();
+        final Level[] levels = Level.values();
+        final StringBuilder line = new StringBuilder(256);
+        try {
+            while (buffer.hasRemaining()) {
+                final byte type = buffer.get();
+                if (type == BinaryEventLog.END_RECORD) {
+                    break;
+                } else if (type == BinaryEventLog.LOGGER_RECORD) {
+                    BinaryLogDecoder.checkNextId(loggers, BinaryLogDecoder.getVarLong(buffer));
+                    loggers.add(BinaryLogDecoder.getString(buffer));
+                    mods.add(BinaryLogDecoder.getString(buffer));
+                } else if (type == BinaryEventLog.TEMPLATE_RECORD) {
+                    BinaryLogDecoder.checkNextId(templates, BinaryLogDecoder.getVarLong(buffer));
+                    templates.add(BinaryLogDecoder.getString(buffer));
+                } else if (type == BinaryEventLog.EVENT_RECORD) {
+                    final long delta = BinaryLogDecoder.getVarLong(buffer);
+                    timestamp += delta >>> 1 ^ -(delta & 1L);
+                    final Level level = levels[buffer.get()];
+                    final int logger = (int) BinaryLogDecoder.getVarLong(buffer);
+                    final String pattern = templates.get((int) BinaryLogDecoder.getVarLong(buffer));
+                    final Object[] arguments = new Object[(int) BinaryLogDecoder.getVarLong(buffer)];
+                    for (int i = 0; i < arguments.length; i++) {
+                        arguments[i] = BinaryLogDecoder.getString(buffer);
+                    }
+                    final String stackTrace = buffer.get() == 0 ? null : BinaryLogDecoder.getString(buffer);
+
+                    line.setLength(0);
+                    TIMESTAMP_FORMAT.formatTo(Instant.ofEpochMilli(timestamp).atZone(this.zone), line);
+                    line.append(" [").append(level.name()).append("] ");
+                    if (!mods.get(logger).isEmpty()) {
+                        line.append('[').append(mods.get(logger)).append("] ");
+                    }
+                    if (this.showClassName) {
+                        line.append('[').append(loggers.get(logger)).append("] ");
+                    }
+                    line.append(MessageFormatter.basicArrayFormat(pattern, arguments));
+                    if (stackTrace != null) {
+                        line.append(": ").append(stackTrace);
+                    }
+                    this.output.append(line).append('\n');
+                } else {
+                    throw new IOException("Unknown record type " + type + " at " + (buffer.position() - 1));
+                }
+            }
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            // The server may have crashed in the middle of a record
+            throw new IOException("Truncated or corrupted record at " + buffer.position(), e);
+        }
+    }
+
+    // Ids are dense and defined in order, anything else means the segment is corrupted
+    private static void checkNextId(final List<String> dictionary, final long id) throws IOException {
+        if (id != dictionary.size()) {
+            throw new IOException("Unexpected dictionary id " + id + ", expected " + dictionary.size());
+        }
+    }
+
+    private static long getVarLong(final ByteBuffer buffer) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint at " + buffer.position());
+    }
+
+    private static String getString(final ByteBuffer buffer) throws IOException {
+        final byte[] bytes = new byte[(int) BinaryLogDecoder.getVarLong(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
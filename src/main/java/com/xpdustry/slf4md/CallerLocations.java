@@ -0,0 +1,88 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Renders caller locations as {@code class.method:line}, caching the result since log statements are called from
+ * the same few places over and over.
+ */
+final class CallerLocations {
+
+    // Generated or dynamic code could have endless locations, past this they are rendered every time
+    private static final int MAX_CACHED = 8192;
+    private static final Map<Key, String> cache = new ConcurrentHashMap<>();
+
+    private CallerLocations() {}
+
+    static String render(final String className, final String methodName, final int line) {
+        final Key key = new Key(className, methodName, line);
+        final String cached = CallerLocations.cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final String location = line < 0 ? className + '.' + methodName : className + '.' + methodName + ':' + line;
+        if (CallerLocations.cache.size() < MAX_CACHED) {
+            CallerLocations.cache.putIfAbsent(key, location);
+        }
+        return location;
+    }
+
+    private static final class Key {
+
+        private final String className;
+        private final String methodName;
+        private final int line;
+
+        private Key(final String className, final String methodName, final int line) {
+            this.className = className;
+            this.methodName = methodName;
+            this.line = line;
+        }
+
+        @Override
+        public boolean equals(final @Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return this.line == that.line
+                    && this.className.equals(that.className)
+                    && this.methodName.equals(that.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * this.className.hashCode() + this.methodName.hashCode()) * 31 + this.line;
+        }
+    }
+}
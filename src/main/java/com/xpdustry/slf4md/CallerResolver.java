@@ -0,0 +1,72 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Finds the class that asked for a logger or the location of a log call. This is the Java 8 implementation,
+ * capturing the whole stack, the jar ships a {@code StackWalker} based one for Java 9 and above.
+ */
+final class CallerResolver {
+
+    private CallerResolver() {}
+
+    /**
+     * Returns the first class of the current stack outside of SLF4MD and the logging frameworks.
+     */
+    static @Nullable Class<?> findCaller() {
+        final StackTraceElement[] trace = Thread.currentThread().getStackTrace();
+        // 0 is Thread#getStackTrace
+        for (int i = 1; i < trace.length; i++) {
+            final String name = trace[i].getClassName();
+            if (MindustryLoggerFactory.isLoggingClass(name)) {
+                continue;
+            }
+            try {
+                return Class.forName(name);
+            } catch (final ClassNotFoundException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the location of the first frame of the current stack outside of SLF4MD and the logging frameworks.
+     */
+    static @Nullable String findLocation() {
+        final StackTraceElement[] trace = Thread.currentThread().getStackTrace();
+        // 0 is Thread#getStackTrace
+        for (int i = 1; i < trace.length; i++) {
+            final StackTraceElement frame = trace[i];
+            if (!MindustryLoggerFactory.isLoggingClass(frame.getClassName())) {
+                return CallerLocations.render(frame.getClassName(), frame.getMethodName(), frame.getLineNumber());
+            }
+        }
+        return null;
+    }
+}
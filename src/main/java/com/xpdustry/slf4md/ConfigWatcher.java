@@ -0,0 +1,113 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import arc.util.Log;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches a file for modifications from a dedicated thread.
+ * The parent directory is watched, since editors and atomic saves replace the file instead of modifying it.
+ */
+final class ConfigWatcher implements Runnable {
+
+    private final WatchService service;
+    private final Path file;
+    private final Runnable listener;
+    private final Thread thread;
+
+    private ConfigWatcher(final WatchService service, final Path file, final Runnable listener) {
+        this.service = service;
+        this.file = file;
+        this.listener = listener;
+        this.thread = new Thread(this, "SLF4MD-Config-Watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching the file, the listener is called from the watcher thread on every modification.
+     */
+    static ConfigWatcher start(final Path file, final Runnable listener) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final WatchService service = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(
+                    service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (final IOException | RuntimeException e) {
+            service.close();
+            throw e;
+        }
+        final ConfigWatcher watcher = new ConfigWatcher(service, file.getFileName(), listener);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                final WatchKey key = this.service.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    // Overflows lose the file names, assume the worst
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || this.file.equals(event.context());
+                }
+                if (changed) {
+                    try {
+                        this.listener.run();
+                    } catch (final Exception e) {
+                        Log.err("[SLF4MD] Failed to handle a settings file change", e);
+                    }
+                }
+                if (!key.reset()) {
+                    Log.warn("[SLF4MD]: The settings directory is gone, external edits won't be reloaded anymore.");
+                    return;
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    void close() {
+        try {
+            this.service.close();
+        } catch (final IOException e) {
+            Log.err("[SLF4MD] Failed to close the settings file watcher", e);
+        }
+    }
+}
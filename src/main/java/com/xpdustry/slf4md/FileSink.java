@@ -0,0 +1,394 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import arc.util.Log;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.event.Level;
+
+/**
+ * Writes rendered log lines to a file from a dedicated thread, as plain text or JSON lines. Lines are batched in a
+ * direct buffer and written through a {@link FileChannel}, the file is rotated by size and age, and rotated files
+ * are compressed on the scheduler thread. Callers only append to an in-memory queue, lines are dropped if the
+ * writer can't keep up.
+ */
+final class FileSink {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+    // The writer wakes up at least this often to rotate idle files on time
+    private static final long IDLE_WAKEUP_MILLIS = 1000L;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final DateTimeFormatter ARCHIVE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss");
+
+    private final Path directory;
+    private final String name;
+    private final FileSinkFormat format;
+    private final int capacity;
+    private final long maxFileSize;
+    private final long rotationMillis;
+    private final boolean compress;
+    private final int maxArchives;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+    private final Thread writer;
+    private List<Entry> pending = new ArrayList<>();
+    private long dropped = 0L;
+    private boolean running = true;
+
+    // Only accessed by the writer thread
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8
+            .newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder line = new StringBuilder(256);
+    private final ZoneId zone = ZoneId.systemDefault();
+    private @Nullable FileChannel channel = null;
+    private long size = 0L;
+    private long rotationDeadline = Long.MAX_VALUE;
+    // Published copy of the size for the status command
+    private volatile long fileSize = 0L;
+
+    FileSink(
+            final Path directory,
+            final String name,
+            final FileSinkFormat format,
+            final int bufferSize,
+            final int capacity,
+            final long maxFileSize,
+            final int rotationHours,
+            final boolean compress,
+            final int maxArchives) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+        }
+        this.directory = directory;
+        this.name = name;
+        this.format = format;
+        this.capacity = capacity;
+        this.maxFileSize = maxFileSize;
+        this.rotationMillis = TimeUnit.HOURS.toMillis(rotationHours);
+        this.compress = compress;
+        this.maxArchives = maxArchives;
+        // At least enough room for the longest UTF-8 encoding of a char
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+        this.writer = new Thread(this::run, "SLF4MD-File-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a line, the timestamp of text lines is rendered by the writer thread.
+     */
+    void append(final long timestamp, final Level level, final String message) {
+        this.lock.lock();
+        try {
+            if (!this.running) {
+                return;
+            }
+            if (this.pending.size() >= this.capacity) {
+                this.dropped++;
+                return;
+            }
+            this.pending.add(new Entry(timestamp, level, message));
+            if (this.pending.size() == 1) {
+                this.notEmpty.signal();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    FileSinkFormat getFormat() {
+        return this.format;
+    }
+
+    Path getFile() {
+        return this.directory.resolve(this.name + this.format.getExtension());
+    }
+
+    long getFileSize() {
+        return this.fileSize;
+    }
+
+    long getDropped() {
+        this.lock.lock();
+        try {
+            return this.dropped;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting lines, then waits for the writer to flush the queued ones and close the file.
+     */
+    void shutdown() {
+        this.lock.lock();
+        try {
+            this.running = false;
+            this.notEmpty.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            this.lock.lock();
+            try {
+                if (this.running && this.pending.isEmpty()) {
+                    this.notEmpty.awaitNanos(TimeUnit.MILLISECONDS.toNanos(IDLE_WAKEUP_MILLIS));
+                }
+                // Swap the queues so callers never wait on file writes
+                final List<Entry> swap = this.pending;
+                this.pending = batch;
+                batch = swap;
+                running = this.running;
+            } catch (final InterruptedException e) {
+                // Only the shutdown can stop the writer
+                continue;
+            } finally {
+                this.lock.unlock();
+            }
+            try {
+                for (final Entry entry : batch) {
+                    this.write(entry);
+                }
+                this.flush();
+                if (this.channel != null && System.currentTimeMillis() >= this.rotationDeadline) {
+                    this.rotate();
+                }
+            } catch (final IOException e) {
+                Log.err("[SLF4MD] Failed to write to the log file " + this.getFile(), e);
+                this.buffer.clear();
+                this.close();
+            }
+            batch.clear();
+        }
+        this.close();
+    }
+
+    private void write(final Entry entry) throws IOException {
+        final StringBuilder line = this.line;
+        line.setLength(0);
+        if (this.format == FileSinkFormat.TEXT) {
+            FileSink.TIMESTAMP_FORMAT.formatTo(Instant.ofEpochMilli(entry.timestamp).atZone(this.zone), line);
+            line.append(" [").append(entry.level.name()).append("] ");
+        }
+        line.append(entry.message).append('\n');
+
+        this.open();
+        // The char count is a lower bound of the encoded size, good enough to decide to rotate
+        final long size = this.size + this.buffer.position();
+        if (size > 0L && size + line.length() > this.maxFileSize) {
+            this.rotate();
+            this.open();
+        }
+        final CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            final CoderResult result = this.encoder.encode(chars, this.buffer, true);
+            if (!result.isOverflow()) {
+                break;
+            }
+            this.flush();
+        }
+        this.encoder.reset();
+    }
+
+    private FileChannel open() throws IOException {
+        FileChannel channel = this.channel;
+        if (channel == null) {
+            Files.createDirectories(this.directory);
+            channel = FileChannel.open(
+                    this.getFile(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.channel = channel;
+            this.size = channel.size();
+            this.rotationDeadline = this.rotationMillis <= 0L
+                    ? Long.MAX_VALUE
+                    : System.currentTimeMillis() + this.rotationMillis;
+        }
+        return channel;
+    }
+
+    private void flush() throws IOException {
+        if (this.buffer.position() == 0) {
+            return;
+        }
+        this.flush(this.open());
+    }
+
+    private void flush(final FileChannel channel) throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.size += channel.write(this.buffer);
+        }
+        this.buffer.clear();
+        this.fileSize = this.size;
+    }
+
+    private void rotate() throws IOException {
+        this.flush();
+        this.close();
+        final Path file = this.getFile();
+        if (!Files.exists(file) || Files.size(file) == 0L) {
+            return;
+        }
+        final String stamp = FileSink.ARCHIVE_FORMAT.format(Instant.now().atZone(this.zone));
+        final String extension = this.format.getExtension();
+        Path archive = this.directory.resolve(this.name + '-' + stamp + extension);
+        for (int i = 1; Files.exists(archive) || Files.exists(FileSink.gzipPath(archive)); i++) {
+            archive = this.directory.resolve(this.name + '-' + stamp + '-' + i + extension);
+        }
+        Files.move(file, archive);
+        final Path rotated = archive;
+        MindustryLoggerMod.getScheduler().execute(() -> {
+            if (this.compress) {
+                FileSink.compress(rotated);
+            }
+            this.prune();
+        });
+    }
+
+    private void close() {
+        final FileChannel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        this.channel = null;
+        try {
+            this.flush(channel);
+            channel.force(false);
+            channel.close();
+        } catch (final IOException e) {
+            Log.err("[SLF4MD] Failed to close the log file " + this.getFile(), e);
+        }
+    }
+
+    private static void compress(final Path file) {
+        final Path target = FileSink.gzipPath(file);
+        try {
+            try (final InputStream input = Files.newInputStream(file);
+                    final OutputStream output = new GZIPOutputStream(Files.newOutputStream(target), 8192)) {
+                final byte[] bytes = new byte[8192];
+                int read;
+                while ((read = input.read(bytes)) != -1) {
+                    output.write(bytes, 0, read);
+                }
+            }
+            Files.delete(file);
+        } catch (final IOException e) {
+            Log.err("[SLF4MD] Failed to compress the log file " + file, e);
+        }
+    }
+
+    private static Path gzipPath(final Path file) {
+        return file.resolveSibling(file.getFileName() + ".gz");
+    }
+
+    // Archives are written in rotation order by the single scheduler thread, so the oldest ones come first
+    private void prune() {
+        if (this.maxArchives <= 0) {
+            return;
+        }
+        final List<Archive> archives = new ArrayList<>();
+        final String glob = this.name + "-*" + this.format.getExtension() + '*';
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, glob)) {
+            for (final Path path : stream) {
+                archives.add(new Archive(path, Files.getLastModifiedTime(path).toMillis()));
+            }
+        } catch (final IOException e) {
+            Log.err("[SLF4MD] Failed to list the log archives in " + this.directory, e);
+            return;
+        }
+        archives.sort(Comparator.comparingLong((Archive archive) -> archive.modified)
+                .thenComparing(archive -> archive.path));
+        for (int i = 0; i < archives.size() - this.maxArchives; i++) {
+            final Path path = archives.get(i).path;
+            try {
+                Files.deleteIfExists(path);
+            } catch (final IOException e) {
+                Log.err("[SLF4MD] Failed to delete the log archive " + path, e);
+            }
+        }
+    }
+
+    private static final class Archive {
+
+        private final Path path;
+        private final long modified;
+
+        private Archive(final Path path, final long modified) {
+            this.path = path;
+            this.modified = modified;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long timestamp;
+        private final Level level;
+        private final String message;
+
+        private Entry(final long timestamp, final Level level, final String message) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.Locale;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * How the file sink writes log statements.
+ */
+public enum FileSinkFormat {
+
+    /**
+     * One plain line per event, prefixed by its timestamp and level.
+     */
+    TEXT,
+
+    /**
+     * One JSON object per line and per event, with the arguments, key-value pairs and MDC as separate fields.
+     */
+    JSON_LINES;
+
+    public String getConfigName() {
+        return this.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public String getExtension() {
+        return this == FileSinkFormat.JSON_LINES ? ".jsonl" : ".log";
+    }
+
+    public static @Nullable FileSinkFormat fromConfigName(final String name) {
+        for (final FileSinkFormat format : FileSinkFormat.values()) {
+            if (format.getConfigName().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+/**
+ * A per-thread reusable {@link StringBuilder} for formatting log messages. Nested log calls on the same thread,
+ * such as an argument logging in its {@code toString()}, get a fresh builder instead. Buffers that grew past
+ * {@link #MAX_RETAINED_CAPACITY} are dropped on release, which also bounds the memory kept by short-lived threads.
+ */
+final class FormattingBuffer {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<FormattingBuffer> BUFFERS = ThreadLocal.withInitial(FormattingBuffer::new);
+
+    private StringBuilder builder = new StringBuilder(FormattingBuffer.INITIAL_CAPACITY);
+    private boolean acquired = false;
+
+    private FormattingBuffer() {}
+
+    static FormattingBuffer acquire() {
+        final FormattingBuffer buffer = FormattingBuffer.BUFFERS.get();
+        if (buffer.acquired) {
+            return new FormattingBuffer();
+        }
+        buffer.acquired = true;
+        return buffer;
+    }
+
+    StringBuilder builder() {
+        return this.builder;
+    }
+
+    void release() {
+        if (this.builder.capacity() > FormattingBuffer.MAX_RETAINED_CAPACITY) {
+            this.builder = new StringBuilder(FormattingBuffer.INITIAL_CAPACITY);
+        } else {
+            this.builder.setLength(0);
+        }
+        this.acquired = false;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+
+/**
+ * Encodes log events as single line JSON objects, straight into a {@link StringBuilder}. Text fields are rendered
+ * in place then escaped, so no intermediate strings are created unless a field contains characters to escape.
+ */
+final class JsonLinesEncoder {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JsonLinesEncoder() {}
+
+    static void encode(
+            final StringBuilder builder,
+            final long timestamp,
+            final Level level,
+            final String logger,
+            final @Nullable String mod,
+            final @Nullable String thread,
+            final @Nullable String location,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            final int argumentCount,
+            final @Nullable List<KeyValuePair> keyValues,
+            final Map<String, String> context,
+            final @Nullable Throwable throwable) {
+        builder.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(timestamp)).append('"');
+        builder.append(",\"level\":\"").append(level.name()).append('"');
+        builder.append(",\"logger\":");
+        JsonLinesEncoder.appendString(builder, logger);
+        if (mod != null) {
+            builder.append(",\"mod\":");
+            JsonLinesEncoder.appendString(builder, mod);
+        }
+        if (thread != null) {
+            builder.append(",\"thread\":");
+            JsonLinesEncoder.appendString(builder, thread);
+        }
+        if (location != null) {
+            builder.append(",\"location\":");
+            JsonLinesEncoder.appendString(builder, location);
+        }
+
+        builder.append(",\"message\":");
+        int start = builder.length();
+        MessageTemplate.of(messagePattern).format(builder, arguments, argumentCount, false);
+        JsonLinesEncoder.quote(builder, start);
+
+        if (arguments != null && argumentCount != 0) {
+            builder.append(",\"args\":[");
+            for (int i = 0; i < argumentCount; i++) {
+                if (i != 0) {
+                    builder.append(',');
+                }
+                JsonLinesEncoder.appendValue(builder, arguments[i]);
+            }
+            builder.append(']');
+        }
+
+        if (keyValues != null && !keyValues.isEmpty()) {
+            builder.append(",\"kv\":{");
+            boolean first = true;
+            for (final KeyValuePair pair : keyValues) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                JsonLinesEncoder.appendString(builder, String.valueOf(pair.key));
+                builder.append(':');
+                JsonLinesEncoder.appendValue(builder, pair.value);
+            }
+            builder.append('}');
+        }
+
+        if (!context.isEmpty()) {
+            builder.append(",\"mdc\":{");
+            boolean first = true;
+            for (final Map.Entry<String, String> entry : context.entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                JsonLinesEncoder.appendString(builder, entry.getKey());
+                builder.append(':');
+                JsonLinesEncoder.appendString(builder, entry.getValue());
+            }
+            builder.append('}');
+        }
+
+        if (throwable != null) {
+            builder.append(",\"exception\":{\"class\":");
+            JsonLinesEncoder.appendString(builder, throwable.getClass().getName());
+            final String message = throwable.getMessage();
+            if (message != null) {
+                builder.append(",\"message\":");
+                JsonLinesEncoder.appendString(builder, message);
+            }
+            builder.append(",\"stack_trace\":");
+            start = builder.length();
+            ThrowableRenderer.render(builder, throwable);
+            JsonLinesEncoder.quote(builder, start);
+            builder.append('}');
+        }
+        builder.append('}');
+    }
+
+    // Numbers and booleans keep their JSON type, anything else is rendered like a message argument
+    private static void appendValue(final StringBuilder builder, final @Nullable Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof Boolean
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof BigInteger
+                || value instanceof BigDecimal) {
+            builder.append(value);
+        } else if ((value instanceof Double && Double.isFinite((Double) value))
+                || (value instanceof Float && Float.isFinite((Float) value))) {
+            builder.append(value);
+        } else {
+            final int start = builder.length();
+            MessageTemplate.appendArgument(builder, value);
+            JsonLinesEncoder.quote(builder, start);
+        }
+    }
+
+    private static void appendString(final StringBuilder builder, final CharSequence value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            JsonLinesEncoder.appendChar(builder, value.charAt(i));
+        }
+        builder.append('"');
+    }
+
+    /**
+     * Turns the text appended since {@code start} into a JSON string.
+     */
+    private static void quote(final StringBuilder builder, final int start) {
+        for (int i = start; i < builder.length(); i++) {
+            if (JsonLinesEncoder.needsEscape(builder.charAt(i))) {
+                final String value = builder.substring(start);
+                builder.setLength(start);
+                JsonLinesEncoder.appendString(builder, value);
+                return;
+            }
+        }
+        builder.insert(start, '"').append('"');
+    }
+
+    private static boolean needsEscape(final char c) {
+        return c < 0x20 || c == '"' || c == '\\';
+    }
+
+    private static void appendChar(final StringBuilder builder, final char c) {
+        switch (c) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    builder.append("\\u00")
+                            .append(JsonLinesEncoder.HEX[c >> 4])
+                            .append(JsonLinesEncoder.HEX[c & 0xF]);
+                } else {
+                    builder.append(c);
+                }
+                break;
+        }
+    }
+}
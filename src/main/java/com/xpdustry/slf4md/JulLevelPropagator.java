@@ -0,0 +1,119 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.LogManager;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Mirrors the SLF4MD levels onto the {@code java.util.logging} loggers, so JUL rejects disabled records itself
+ * instead of building them and sending them through the bridge. Kept in its own class so SLF4MD still works
+ * when the JUL classes are missing.
+ */
+final class JulLevelPropagator {
+
+    private static final AtomicBoolean scheduled = new AtomicBoolean();
+    // JUL only keeps weak references to its loggers, which would lose the levels set on them
+    private static final List<java.util.logging.Logger> retained = new ArrayList<>();
+    // The loggers given a level here, the others keep the level set by their owner or the JUL configuration
+    private static final Set<String> managed = new HashSet<>();
+
+    private JulLevelPropagator() {}
+
+    /**
+     * Schedules a propagation on the SLF4MD scheduler, coalescing the requests made in the meantime.
+     */
+    static void schedule() {
+        if (JulLevelPropagator.scheduled.compareAndSet(false, true)) {
+            MindustryLoggerMod.getScheduler().execute(() -> {
+                JulLevelPropagator.scheduled.set(false);
+                JulLevelPropagator.propagate();
+            });
+        }
+    }
+
+    static synchronized void propagate() {
+        final LogManager manager = LogManager.getLogManager();
+        final java.util.logging.Logger root = manager.getLogger("");
+        if (root != null) {
+            root.setLevel(JulLevelPropagator.toJulLevel(MindustryLoggerMod.getEnabledLevel(Logger.ROOT_LOGGER_NAME)));
+        }
+
+        // Create the loggers of the rules, so JUL loggers created later inherit their level
+        JulLevelPropagator.retained.clear();
+        for (final String name : MindustryLoggerMod.getConfiguredLoggerNames()) {
+            JulLevelPropagator.retained.add(java.util.logging.Logger.getLogger(name));
+        }
+
+        final Enumeration<String> names = manager.getLoggerNames();
+        while (names.hasMoreElements()) {
+            final String name = names.nextElement();
+            if (name.isEmpty()) {
+                continue;
+            }
+            final java.util.logging.Logger logger = manager.getLogger(name);
+            if (logger == null) {
+                continue;
+            }
+            // SLF4MD names are case-insensitive unlike JUL ones, hence the explicit level on every matching logger
+            if (MindustryLoggerMod.getConfiguredLevel(name) != null) {
+                logger.setLevel(JulLevelPropagator.toJulLevel(MindustryLoggerMod.getEnabledLevel(name)));
+                JulLevelPropagator.managed.add(name);
+            } else if (JulLevelPropagator.managed.remove(name)) {
+                // Its rule is gone, inherit again
+                logger.setLevel(null);
+            }
+        }
+    }
+
+    // Mirrors the level mapping of SLF4JBridgeHandler, FINER and CONFIG are bridged to DEBUG and INFO
+    private static java.util.logging.Level toJulLevel(final @Nullable Level level) {
+        if (level == null) {
+            return java.util.logging.Level.OFF;
+        }
+        switch (level) {
+            case TRACE:
+                return java.util.logging.Level.FINEST;
+            case DEBUG:
+                return java.util.logging.Level.FINER;
+            case WARN:
+                return java.util.logging.Level.WARNING;
+            case ERROR:
+                return java.util.logging.Level.SEVERE;
+            case INFO:
+            default:
+                return java.util.logging.Level.CONFIG;
+        }
+    }
+}
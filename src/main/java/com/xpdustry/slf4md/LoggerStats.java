@@ -0,0 +1,225 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Counters of a logger, shared by the loggers of the same name. Striped so concurrent callers don't contend.
+ */
+final class LoggerStats {
+
+    private static final Map<String, LoggerStats> registry = new ConcurrentHashMap<>();
+    private static final LatencyHistogram handleLatency = new LatencyHistogram();
+    private static final LatencyHistogram outputLatency = new LatencyHistogram();
+
+    private final String name;
+    private volatile @Nullable String mod = null;
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder formattedChars = new LongAdder();
+
+    private LoggerStats(final String name) {
+        this.name = name;
+    }
+
+    static LoggerStats of(final String name) {
+        final LoggerStats stats = LoggerStats.registry.get(name);
+        if (stats != null) {
+            return stats;
+        }
+        return LoggerStats.registry.computeIfAbsent(name, LoggerStats::new);
+    }
+
+    /**
+     * Time spent between the SLF4J call and the output or asynchronous queue, filters included.
+     */
+    static LatencyHistogram getHandleLatency() {
+        return LoggerStats.handleLatency;
+    }
+
+    /**
+     * Time spent in {@code Log.log}, where Arc writes to the console and its other log handlers.
+     */
+    static LatencyHistogram getOutputLatency() {
+        return LoggerStats.outputLatency;
+    }
+
+    /**
+     * Returns the loggers that emitted the most events, then the most characters.
+     */
+    static List<Snapshot> getNoisiest(final int count) {
+        final List<Snapshot> snapshots = new ArrayList<>();
+        for (final LoggerStats stats : LoggerStats.registry.values()) {
+            final Snapshot snapshot = new Snapshot(stats.name, stats.mod);
+            snapshot.add(stats);
+            if (!snapshot.isEmpty()) {
+                snapshots.add(snapshot);
+            }
+        }
+        return LoggerStats.top(snapshots, count);
+    }
+
+    /**
+     * Returns the counters of each mod summed over its loggers, the noisiest first.
+     */
+    static List<Snapshot> getNoisiestMods(final int count) {
+        final Map<String, Snapshot> mods = new HashMap<>();
+        for (final LoggerStats stats : LoggerStats.registry.values()) {
+            final String mod = stats.mod;
+            if (mod != null) {
+                mods.computeIfAbsent(mod, name -> new Snapshot(name, name)).add(stats);
+            }
+        }
+        final List<Snapshot> snapshots = new ArrayList<>();
+        for (final Snapshot snapshot : mods.values()) {
+            if (!snapshot.isEmpty()) {
+                snapshots.add(snapshot);
+            }
+        }
+        return LoggerStats.top(snapshots, count);
+    }
+
+    /**
+     * Returns the counters summed over every logger.
+     */
+    static Snapshot getTotal() {
+        final Snapshot total = new Snapshot("total", null);
+        for (final LoggerStats stats : LoggerStats.registry.values()) {
+            total.add(stats);
+        }
+        return total;
+    }
+
+    // Sorted on snapshots, the live counters could change during the sort and break the comparator contract
+    private static List<Snapshot> top(final List<Snapshot> snapshots, final int count) {
+        snapshots.sort(Comparator.comparingLong((Snapshot snapshot) -> snapshot.emitted)
+                .thenComparingLong(snapshot -> snapshot.formattedChars)
+                .reversed());
+        return snapshots.subList(0, Math.min(count, snapshots.size()));
+    }
+
+    static void resetAll() {
+        for (final LoggerStats stats : LoggerStats.registry.values()) {
+            stats.emitted.reset();
+            stats.suppressed.reset();
+            stats.dropped.reset();
+            stats.sampled.reset();
+            stats.formattedChars.reset();
+        }
+        LoggerStats.handleLatency.reset();
+        LoggerStats.outputLatency.reset();
+    }
+
+    void setMod(final @Nullable String mod) {
+        this.mod = mod;
+    }
+
+    void recordEmitted() {
+        this.emitted.increment();
+    }
+
+    void recordSuppressed() {
+        this.suppressed.increment();
+    }
+
+    void recordDropped() {
+        this.dropped.increment();
+    }
+
+    void recordSampled() {
+        this.sampled.increment();
+    }
+
+    void recordFormatted(final int chars) {
+        this.formattedChars.add(chars);
+    }
+
+    static final class Snapshot {
+
+        private final String name;
+        private final @Nullable String mod;
+        private long emitted = 0L;
+        private long suppressed = 0L;
+        private long dropped = 0L;
+        private long sampled = 0L;
+        private long formattedChars = 0L;
+
+        private Snapshot(final String name, final @Nullable String mod) {
+            this.name = name;
+            this.mod = mod;
+        }
+
+        String getName() {
+            return this.name;
+        }
+
+        @Nullable String getMod() {
+            return this.mod;
+        }
+
+        long getEmitted() {
+            return this.emitted;
+        }
+
+        long getSuppressed() {
+            return this.suppressed;
+        }
+
+        long getDropped() {
+            return this.dropped;
+        }
+
+        long getSampled() {
+            return this.sampled;
+        }
+
+        long getFormattedChars() {
+            return this.formattedChars;
+        }
+
+        private void add(final LoggerStats stats) {
+            this.emitted += stats.emitted.sum();
+            this.suppressed += stats.suppressed.sum();
+            this.dropped += stats.dropped.sum();
+            this.sampled += stats.sampled.sum();
+            this.formattedChars += stats.formattedChars.sum();
+        }
+
+        private boolean isEmpty() {
+            return this.emitted == 0L && this.suppressed == 0L && this.dropped == 0L && this.sampled == 0L;
+        }
+    }
+}
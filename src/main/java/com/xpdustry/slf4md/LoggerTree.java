@@ -0,0 +1,127 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+
+/**
+ * An immutable prefix tree of per-logger settings, where a value set on {@code com.example} also applies to
+ * {@code com.example.Foo} unless a more specific rule exists. Names are split on {@code .} and {@code $}, and a
+ * value set on the root logger name applies to every logger.
+ */
+final class LoggerTree<V> {
+
+    private static final String ROOT_NAME = Logger.ROOT_LOGGER_NAME.toLowerCase(Locale.ROOT);
+    private static final LoggerTree<?> EMPTY = new LoggerTree<>(new Node<>());
+
+    private final Node<V> root;
+
+    private LoggerTree(final Node<V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> LoggerTree<V> empty() {
+        return (LoggerTree<V>) LoggerTree.EMPTY;
+    }
+
+    static <V> LoggerTree<V> compile(final Map<String, V> values) {
+        if (values.isEmpty()) {
+            return LoggerTree.empty();
+        }
+        final Node<V> root = new Node<>();
+        for (final Map.Entry<String, V> entry : values.entrySet()) {
+            final String name = entry.getKey();
+            Node<V> node = root;
+            if (!name.equals(LoggerTree.ROOT_NAME)) {
+                int start = 0;
+                while (start <= name.length()) {
+                    final int end = LoggerTree.nextSeparator(name, start);
+                    node = node.children.computeIfAbsent(name.substring(start, end), k -> new Node<>());
+                    start = end + 1;
+                }
+            }
+            node.value = entry.getValue();
+            node.rule = name;
+        }
+        return new LoggerTree<>(root);
+    }
+
+    /**
+     * Returns the value of the most specific rule matching the given lowercase logger name.
+     */
+    @Nullable V resolve(final String name) {
+        final Node<V> node = this.find(name);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the name of the most specific rule matching the given lowercase logger name.
+     */
+    @Nullable String resolveRule(final String name) {
+        final Node<V> node = this.find(name);
+        return node == null ? null : node.rule;
+    }
+
+    private @Nullable Node<V> find(final String name) {
+        Node<V> node = this.root;
+        Node<V> match = node.value != null ? node : null;
+        int start = 0;
+        while (start <= name.length()) {
+            final int end = LoggerTree.nextSeparator(name, start);
+            node = node.children.get(name.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            if (node.value != null) {
+                match = node;
+            }
+            start = end + 1;
+        }
+        return match;
+    }
+
+    private static int nextSeparator(final String name, final int start) {
+        for (int i = start; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == '.' || c == '$') {
+                return i;
+            }
+        }
+        return name.length();
+    }
+
+    private static final class Node<V> {
+
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private @Nullable V value = null;
+        private @Nullable String rule = null;
+    }
+}
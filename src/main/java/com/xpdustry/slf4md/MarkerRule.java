@@ -0,0 +1,131 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Allows or denies the events of a logger carrying some markers, directly or through their references.
+ * A denied marker drops the event whatever its level, an allowed marker lets it through whatever the level.
+ * Written as {@code +ALLOWED,-DENIED} in the settings and commands.
+ */
+final class MarkerRule {
+
+    private final Set<String> allowed;
+    private final Set<String> denied;
+    private final long[] allowMask;
+    private final long[] denyMask;
+
+    private MarkerRule(final Set<String> allowed, final Set<String> denied) {
+        this.allowed = allowed;
+        this.denied = denied;
+        this.allowMask = MarkerRule.compile(allowed);
+        this.denyMask = MarkerRule.compile(denied);
+    }
+
+    static @Nullable MarkerRule parse(final String value) {
+        final Set<String> allowed = new LinkedHashSet<>();
+        final Set<String> denied = new LinkedHashSet<>();
+        for (final String part : value.split(",")) {
+            final String entry = part.trim();
+            if (entry.length() < 2) {
+                return null;
+            }
+            final String name = entry.substring(1);
+            if (entry.charAt(0) == '+') {
+                allowed.add(name);
+            } else if (entry.charAt(0) == '-') {
+                denied.add(name);
+            } else {
+                return null;
+            }
+        }
+        return new MarkerRule(allowed, denied);
+    }
+
+    private static long[] compile(final Set<String> names) {
+        long[] mask = new long[0];
+        for (final String name : names) {
+            final int id = MindustryMarkerFactory.getMarkerId(name);
+            if (id >>> 6 >= mask.length) {
+                final long[] grown = new long[(id >>> 6) + 1];
+                System.arraycopy(mask, 0, grown, 0, mask.length);
+                mask = grown;
+            }
+            mask[id >>> 6] |= 1L << id;
+        }
+        return mask;
+    }
+
+    boolean isDenied(final long[] closure) {
+        return MarkerRule.intersects(this.denyMask, closure);
+    }
+
+    boolean isAllowed(final long[] closure) {
+        return MarkerRule.intersects(this.allowMask, closure);
+    }
+
+    private static boolean intersects(final long[] mask, final long[] closure) {
+        final int length = Math.min(mask.length, closure.length);
+        for (int i = 0; i < length; i++) {
+            if ((mask[i] & closure[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MarkerRule)) {
+            return false;
+        }
+        final MarkerRule that = (MarkerRule) o;
+        return this.allowed.equals(that.allowed) && this.denied.equals(that.denied);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.allowed.hashCode() + this.denied.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (final String name : this.allowed) {
+            builder.append(builder.length() == 0 ? "" : ",").append('+').append(name);
+        }
+        for (final String name : this.denied) {
+            builder.append(builder.length() == 0 ? "" : ",").append('-').append(name);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.event.Level;
+
+/**
+ * Drops repeated messages of a logger once a {@link SuppressionRule} is exceeded, and logs a single summary line
+ * when the window of the suppressed messages closes. Messages are considered similar when they share the same
+ * pattern, throwable type and throwable top frame.
+ */
+final class MessageSuppressor {
+
+    private static final int MAX_WINDOWS = 256;
+    private static final Set<MessageSuppressor> PENDING = ConcurrentHashMap.newKeySet();
+    private static volatile boolean sweeping = false;
+
+    private final MindustryLogger logger;
+    private final SuppressionRule rule;
+    // Keyed by the whole fingerprint, so different messages never share a window. Only closed windows are removed,
+    // a new message arriving while all the windows are open is let through untracked
+    private final Map<Fingerprint, Window> windows = new HashMap<>();
+
+    MessageSuppressor(final MindustryLogger logger, final SuppressionRule rule) {
+        this.logger = logger;
+        this.rule = rule;
+    }
+
+    SuppressionRule getRule() {
+        return this.rule;
+    }
+
+    /**
+     * Returns whether the message can be logged, or false if it has been suppressed.
+     */
+    boolean tryAcquire(
+            final Level level,
+            final String pattern,
+            final @Nullable Object @Nullable [] arguments,
+            final @Nullable Throwable throwable) {
+        Throwable cause = throwable;
+        if (cause == null
+                && arguments != null
+                && arguments.length != 0
+                && arguments[arguments.length - 1] instanceof Throwable) {
+            cause = (Throwable) arguments[arguments.length - 1];
+        }
+        final Fingerprint fingerprint = new Fingerprint(
+                pattern, cause == null ? null : cause.getClass(), MessageSuppressor.getTopFrame(cause));
+
+        final long now = System.currentTimeMillis();
+        List<Window> closed = Collections.emptyList();
+        final boolean acquired;
+        synchronized (this) {
+            final Window window = this.windows.get(fingerprint);
+            if (window == null) {
+                if (this.windows.size() >= MessageSuppressor.MAX_WINDOWS) {
+                    closed = this.removeExpired(now);
+                }
+                if (this.windows.size() < MessageSuppressor.MAX_WINDOWS) {
+                    this.windows.put(fingerprint, new Window(level, pattern, now));
+                }
+                acquired = true;
+            } else if (now - window.start >= this.rule.getWindowMillis()) {
+                if (window.suppressed != 0) {
+                    closed = Collections.singletonList(window.copy());
+                }
+                window.reset(now);
+                acquired = true;
+            } else if (window.count < this.rule.getLimit()) {
+                window.count++;
+                acquired = true;
+            } else {
+                window.suppressed++;
+                acquired = false;
+            }
+        }
+
+        for (final Window window : closed) {
+            this.summarize(window);
+        }
+        if (!acquired) {
+            MessageSuppressor.PENDING.add(this);
+            MessageSuppressor.ensureSweeping();
+        }
+        return acquired;
+    }
+
+    /**
+     * Removes the closed windows, returns those with suppressed messages to summarize.
+     */
+    private List<Window> removeExpired(final long now) {
+        List<Window> closed = Collections.emptyList();
+        final Iterator<Window> iterator = this.windows.values().iterator();
+        while (iterator.hasNext()) {
+            final Window window = iterator.next();
+            if (now - window.start < this.rule.getWindowMillis()) {
+                continue;
+            }
+            iterator.remove();
+            if (window.suppressed != 0) {
+                if (closed.isEmpty()) {
+                    closed = new ArrayList<>();
+                }
+                closed.add(window);
+            }
+        }
+        return closed;
+    }
+
+    private void flushExpired(final long now) {
+        final List<Window> closed;
+        boolean pending = false;
+        synchronized (this) {
+            closed = this.removeExpired(now);
+            for (final Window window : this.windows.values()) {
+                if (window.suppressed != 0) {
+                    pending = true;
+                    break;
+                }
+            }
+        }
+        if (!pending) {
+            MessageSuppressor.PENDING.remove(this);
+        }
+        for (final Window window : closed) {
+            this.summarize(window);
+        }
+    }
+
+    private void summarize(final Window window) {
+        this.logger.dispatch(
+                window.level,
+                "Suppressed {} similar messages: {}",
+                new Object[] {String.format(Locale.ROOT, "%,d", window.suppressed), window.pattern},
+                null,
+                null,
+                null);
+    }
+
+    private static @Nullable StackTraceElement getTopFrame(final @Nullable Throwable throwable) {
+        if (throwable == null) {
+            return null;
+        }
+        final StackTraceElement[] trace = throwable.getStackTrace();
+        return trace.length == 0 ? null : trace[0];
+    }
+
+    private static void ensureSweeping() {
+        if (MessageSuppressor.sweeping) {
+            return;
+        }
+        synchronized (MessageSuppressor.class) {
+            if (MessageSuppressor.sweeping) {
+                return;
+            }
+            MessageSuppressor.sweeping = true;
+            MindustryLoggerMod.getScheduler()
+                    .scheduleWithFixedDelay(
+                            () -> {
+                                final long now = System.currentTimeMillis();
+                                for (final MessageSuppressor suppressor : MessageSuppressor.PENDING) {
+                                    suppressor.flushExpired(now);
+                                }
+                            },
+                            1L,
+                            1L,
+                            TimeUnit.SECONDS);
+        }
+    }
+
+    private static final class Fingerprint {
+
+        private final String pattern;
+        private final @Nullable Class<?> type;
+        private final @Nullable StackTraceElement frame;
+        private final int hash;
+
+        private Fingerprint(
+                final String pattern, final @Nullable Class<?> type, final @Nullable StackTraceElement frame) {
+            this.pattern = pattern;
+            this.type = type;
+            this.frame = frame;
+            int hash = pattern.hashCode();
+            hash = 31 * hash + (type == null ? 0 : type.hashCode());
+            this.hash = 31 * hash + (frame == null ? 0 : frame.hashCode());
+        }
+
+        @Override
+        public boolean equals(final @Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            final Fingerprint that = (Fingerprint) o;
+            return this.hash == that.hash
+                    && this.type == that.type
+                    && this.pattern.equals(that.pattern)
+                    && Objects.equals(this.frame, that.frame);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class Window {
+
+        private final Level level;
+        private final String pattern;
+        private long start;
+        private int count = 1;
+        private long suppressed = 0L;
+
+        private Window(final Level level, final String pattern, final long start) {
+            this.level = level;
+            this.pattern = pattern;
+            this.start = start;
+        }
+
+        private Window copy() {
+            final Window copy = new Window(this.level, this.pattern, this.start);
+            copy.count = this.count;
+            copy.suppressed = this.suppressed;
+            return copy;
+        }
+
+        private void reset(final long now) {
+            this.start = now;
+            this.count = 1;
+            this.suppressed = 0L;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import arc.util.Log;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A message pattern split around its {@code {}} placeholders, with the argument color codes already spliced in
+ * the literal segments, and a colorless copy of them. Follows the escaping rules of
+ * {@link org.slf4j.helpers.MessageFormatter}, escapes are only resolved up to the last placeholder receiving an
+ * argument and the rest of the pattern is copied as is, so a pattern without arguments is printed verbatim.
+ */
+final class MessageTemplate {
+
+    private static final String ARGUMENT_START = "&fb&lb";
+    private static final String ARGUMENT_END = "&fr";
+    private static final String PLACEHOLDER = "{}";
+
+    // Direct-mapped, a colliding pattern simply replaces the previous one, which bounds the cache
+    // even when patterns are built dynamically, without any locking on the lookup path
+    private static final int CACHE_SIZE = 1024;
+    private static final @Nullable MessageTemplate[] CACHE = new MessageTemplate[CACHE_SIZE];
+
+    private final String pattern;
+    private final String plainPattern;
+    // One more segment than placeholders
+    private final String[] segments;
+    private final String[] plainSegments;
+    // Index of the pattern right after each placeholder, where the verbatim copy starts once arguments run out
+    private final int[] ends;
+    // Whether an escape was resolved after the last placeholder, the last segment then differs from the pattern
+    private final boolean escapedTail;
+
+    private MessageTemplate(
+            final String pattern, final String[] segments, final int[] ends, final boolean escapedTail) {
+        this.pattern = pattern;
+        this.plainPattern = Log.removeColors(pattern);
+        this.segments = segments;
+        this.ends = ends;
+        this.escapedTail = escapedTail;
+        this.plainSegments = new String[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            this.plainSegments[i] = Log.removeColors(segments[i]);
+        }
+    }
+
+    static MessageTemplate of(final String pattern) {
+        final int hash = pattern.hashCode();
+        final int index = (hash ^ (hash >>> 16)) & (MessageTemplate.CACHE_SIZE - 1);
+        final MessageTemplate cached = MessageTemplate.CACHE[index];
+        if (cached != null && (cached.pattern == pattern || cached.pattern.equals(pattern))) {
+            return cached;
+        }
+        // Fields are final, so the template is safely published through the plain array write
+        final MessageTemplate template = MessageTemplate.parse(pattern);
+        MessageTemplate.CACHE[index] = template;
+        return template;
+    }
+
+    private static MessageTemplate parse(final String pattern) {
+        final List<String> segments = new ArrayList<>();
+        int[] ends = new int[4];
+        boolean escapedTail = false;
+        final StringBuilder segment = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            final int j = pattern.indexOf(MessageTemplate.PLACEHOLDER, i);
+            if (j == -1) {
+                segment.append(pattern, i, pattern.length());
+                break;
+            }
+            if (MessageTemplate.isEscaped(pattern, j)) {
+                if (!MessageTemplate.isEscaped(pattern, j - 1)) {
+                    // \{} is a literal {}
+                    segment.append(pattern, i, j - 1).append(MessageTemplate.PLACEHOLDER);
+                    escapedTail = true;
+                    i = j + 2;
+                    continue;
+                }
+                // \\{} is a literal backslash followed by a placeholder
+                segment.append(pattern, i, j - 1);
+            } else {
+                segment.append(pattern, i, j);
+            }
+            if (segments.size() == ends.length) {
+                ends = Arrays.copyOf(ends, ends.length * 2);
+            }
+            ends[segments.size()] = j + 2;
+            escapedTail = false;
+            segments.add(segment.append(MessageTemplate.ARGUMENT_START).toString());
+            segment.setLength(0);
+            segment.append(MessageTemplate.ARGUMENT_END);
+            i = j + 2;
+        }
+        segments.add(segment.toString());
+        return new MessageTemplate(
+                pattern, segments.toArray(new String[0]), Arrays.copyOf(ends, segments.size() - 1), escapedTail);
+    }
+
+    private static boolean isEscaped(final String pattern, final int index) {
+        return index >= 1 && pattern.charAt(index - 1) == '\\';
+    }
+
+    /**
+     * Appends the formatted message, only the first {@code count} arguments are used.
+     */
+    void format(
+            final StringBuilder builder,
+            final @Nullable Object @Nullable [] arguments,
+            final int count,
+            final boolean colors) {
+        if (arguments == null || count == 0) {
+            builder.append(colors ? this.pattern : this.plainPattern);
+            return;
+        }
+        final String[] segments = colors ? this.segments : this.plainSegments;
+        final int placeholders = segments.length - 1;
+        final int used = Math.min(count, placeholders);
+        for (int i = 0; i < used; i++) {
+            builder.append(segments[i]);
+            MessageTemplate.appendArgument(builder, arguments[i]);
+        }
+        // MessageFormatter stops resolving escapes at the last argument, extra arguments keep it going
+        if (count > placeholders || (count == placeholders && !this.escapedTail)) {
+            builder.append(segments[placeholders]);
+        } else if (colors) {
+            // Out of arguments, the rest is copied as is, escapes included
+            builder.append(MessageTemplate.ARGUMENT_END)
+                    .append(this.pattern, this.ends[used - 1], this.pattern.length());
+        } else {
+            builder.append(Log.removeColors(this.pattern.substring(this.ends[used - 1])));
+        }
+    }
+
+    static void appendArgument(final StringBuilder builder, final @Nullable Object argument) {
+        if (argument == null) {
+            builder.append("null");
+            return;
+        }
+        try {
+            if (!argument.getClass().isArray()) {
+                builder.append(argument);
+            } else if (argument instanceof Object[]) {
+                builder.append(Arrays.deepToString((Object[]) argument));
+            } else if (argument instanceof boolean[]) {
+                builder.append(Arrays.toString((boolean[]) argument));
+            } else if (argument instanceof byte[]) {
+                builder.append(Arrays.toString((byte[]) argument));
+            } else if (argument instanceof char[]) {
+                builder.append(Arrays.toString((char[]) argument));
+            } else if (argument instanceof short[]) {
+                builder.append(Arrays.toString((short[]) argument));
+            } else if (argument instanceof int[]) {
+                builder.append(Arrays.toString((int[]) argument));
+            } else if (argument instanceof long[]) {
+                builder.append(Arrays.toString((long[]) argument));
+            } else if (argument instanceof float[]) {
+                builder.append(Arrays.toString((float[]) argument));
+            } else {
+                builder.append(Arrays.toString((double[]) argument));
+            }
+        } catch (final Throwable e) {
+            builder.append("[FAILED toString()]");
+        }
+    }
+}
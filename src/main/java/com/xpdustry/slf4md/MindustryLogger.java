@@ -26,76 +26,208 @@
 package com.xpdustry.slf4md;
 
 import arc.util.Log;
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.util.Arrays;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import mindustry.Vars;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
 import org.slf4j.event.Level;
+import org.slf4j.event.LoggingEvent;
 import org.slf4j.helpers.AbstractLogger;
-import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.spi.LoggingEventAware;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
 
-public final class MindustryLogger extends AbstractLogger {
+public final class MindustryLogger extends AbstractLogger implements LoggingEventAware {
 
     private static final long serialVersionUID = 3476499937056865545L;
 
-    private final @Nullable String mod;
+    private static final int LEVEL_OFF = Level.ERROR.toInt() + 10;
+
+    // Resolved from the origin class on the first enabled log call. The origin is weakly held, the factory keeps
+    // class loggers forever and would otherwise pin the class loader of an unloaded mod
+    private volatile @Nullable String mod;
+    private transient volatile @Nullable WeakReference<Class<?>> origin;
+    private final transient @Nullable MindustryLoggerFactory factory;
+    private final transient LoggerStats stats;
+
+    // The level generation is stored in the upper 24 bits, the output threshold in the next 4 bits and the enabled
+    // threshold, which also covers the capture level, in the lower 4 bits. Thresholds are stored divided by 10, so
+    // the cache is validated with a single int read that can't tear between threads
+    private transient int levelCache = 0;
+    private transient @Nullable MarkerRule markerRule = null;
+    private transient @Nullable Prefixes prefixes = null;
+    private transient @Nullable MessageSuppressor suppressor = null;
+    private transient @Nullable SamplingRule samplingRule = null;
+    private transient @Nullable RateLimiter rateLimiter = null;
+    private transient @Nullable RateLimiter modRateLimiter = null;
+    private transient boolean fileRouted = false;
+    private transient boolean callerLocation = false;
+    private transient int settingsGeneration = 0;
 
     MindustryLogger(final String name, final @Nullable String mod) {
         this.name = name;
         this.mod = mod;
+        this.origin = null;
+        this.factory = null;
+        this.stats = LoggerStats.of(name);
+    }
+
+    /**
+     * Creates a logger whose mod is lazily resolved from the class loader of its origin.
+     */
+    MindustryLogger(final String name, final Class<?> origin, final MindustryLoggerFactory factory) {
+        this.name = name;
+        this.mod = null;
+        this.origin = new WeakReference<>(origin);
+        this.factory = factory;
+        this.stats = LoggerStats.of(name);
     }
 
     @Override
     public boolean isTraceEnabled() {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.TRACE);
+        return this.isLevelEnabled(Level.TRACE);
     }
 
     @Override
     public boolean isTraceEnabled(final Marker marker) {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.TRACE);
+        return this.isLevelEnabled(Level.TRACE, marker);
     }
 
     @Override
     public boolean isDebugEnabled() {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.DEBUG);
+        return this.isLevelEnabled(Level.DEBUG);
     }
 
     @Override
     public boolean isDebugEnabled(final Marker marker) {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.DEBUG);
+        return this.isLevelEnabled(Level.DEBUG, marker);
     }
 
     @Override
     public boolean isInfoEnabled() {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.INFO);
+        return this.isLevelEnabled(Level.INFO);
     }
 
     @Override
     public boolean isInfoEnabled(final Marker marker) {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.INFO);
+        return this.isLevelEnabled(Level.INFO, marker);
     }
 
     @Override
     public boolean isWarnEnabled() {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.WARN);
+        return this.isLevelEnabled(Level.WARN);
     }
 
     @Override
     public boolean isWarnEnabled(final Marker marker) {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.WARN);
+        return this.isLevelEnabled(Level.WARN, marker);
     }
 
     @Override
     public boolean isErrorEnabled() {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.ERROR);
+        return this.isLevelEnabled(Level.ERROR);
     }
 
     @Override
     public boolean isErrorEnabled(final Marker marker) {
-        return MindustryLoggerMod.hasAtLeastLevel(this.name, Level.ERROR);
+        return this.isLevelEnabled(Level.ERROR, marker);
+    }
+
+    private boolean isLevelEnabled(final Level level) {
+        return level.toInt() >= (this.getLevelCache() & 0xF) * 10;
+    }
+
+    private boolean isLevelEnabled(final Level level, final @Nullable Marker marker) {
+        final int cache = this.getLevelCache();
+        final MarkerRule rule = this.markerRule;
+        if (rule != null && marker != null) {
+            final long[] closure = MindustryMarker.getClosure(marker);
+            if (rule.isDenied(closure)) {
+                return false;
+            } else if (rule.isAllowed(closure)) {
+                return true;
+            }
+        }
+        return level.toInt() >= (cache & 0xF) * 10;
+    }
+
+    /**
+     * Returns whether an enabled event is written to the outputs, rather than only captured in the recent events.
+     */
+    private boolean isOutputEnabled(final Level level, final @Nullable Marker marker) {
+        if (level.toInt() >= (this.getLevelCache() >>> 4 & 0xF) * 10) {
+            return true;
+        }
+        final MarkerRule rule = this.markerRule;
+        return rule != null && marker != null && rule.isAllowed(MindustryMarker.getClosure(marker));
+    }
+
+    private int getLevelCache() {
+        MindustryLoggerMod.pollRootLevel();
+        final int cache = this.levelCache;
+        if (cache >>> 8 != MindustryLoggerMod.getLevelGeneration()) {
+            return this.refreshLevelCache();
+        }
+        return cache;
+    }
+
+    private int refreshLevelCache() {
+        // Read the generation first, a concurrent change will bump it again and invalidate this result
+        final int generation = MindustryLoggerMod.getLevelGeneration();
+        final Level output = MindustryLoggerMod.getEffectiveLevel(this.name);
+        final Level enabled = MindustryLoggerMod.getEnabledLevel(this.name);
+        this.markerRule = MindustryLoggerMod.getMarkerRule(this.name);
+        final int cache = generation << 8
+                | (output == null ? LEVEL_OFF : output.toInt()) / 10 << 4
+                | (enabled == null ? LEVEL_OFF : enabled.toInt()) / 10;
+        this.levelCache = cache;
+        return cache;
+    }
+
+    private void refreshSettings() {
+        final int generation = MindustryLoggerMod.getLevelGeneration();
+        if (this.settingsGeneration == generation) {
+            return;
+        }
+        this.refreshSuppressor();
+        this.samplingRule = MindustryLoggerMod.getSamplingRule(this.name);
+        this.rateLimiter = MindustryLoggerMod.getRateLimiter(this.name);
+        final String mod = this.getMod();
+        this.modRateLimiter = mod == null ? null : MindustryLoggerMod.getModRateLimiter(mod);
+        this.fileRouted = MindustryLoggerMod.isFileRouted(this.name, mod);
+        this.callerLocation = MindustryLoggerMod.isCallerLocationEnabled(this.name);
+        this.stats.setMod(mod);
+        this.settingsGeneration = generation;
+    }
+
+    private @Nullable String getMod() {
+        final WeakReference<Class<?>> reference = this.origin;
+        final MindustryLoggerFactory factory = this.factory;
+        if (reference != null && factory != null) {
+            // Concurrent callers may both resolve it, which is harmless. A collected origin has no mod left
+            final Class<?> origin = reference.get();
+            if (origin != null) {
+                this.mod = factory.getModDisplayName(origin);
+            }
+            this.origin = null;
+        }
+        return this.mod;
+    }
+
+    private void refreshSuppressor() {
+        final SuppressionRule rule = MindustryLoggerMod.getSuppressionRule(this.name);
+        final MessageSuppressor suppressor = this.suppressor;
+        if (rule == null) {
+            this.suppressor = null;
+        } else if (suppressor == null || !suppressor.getRule().equals(rule)) {
+            // Keep the current suppressor and its windows if the rule didn't change
+            this.suppressor = new MessageSuppressor(this, rule);
+        }
     }
 
     @Override
@@ -108,51 +240,345 @@ public final class MindustryLogger extends AbstractLogger {
             final Level level,
             final @Nullable Marker marker,
             final String messagePattern,
-            @Nullable Object @Nullable [] arguments,
-            @Nullable Throwable throwable) {
-        final StringBuilder builder = new StringBuilder();
+            final @Nullable Object @Nullable [] arguments,
+            final @Nullable Throwable throwable) {
+        this.process(level, this.isOutputEnabled(level, marker), messagePattern, arguments, throwable, null);
+    }
+
+    @Override
+    public LoggingEventBuilder atTrace() {
+        return this.atLevel(Level.TRACE);
+    }
+
+    @Override
+    public LoggingEventBuilder atDebug() {
+        return this.atLevel(Level.DEBUG);
+    }
+
+    @Override
+    public LoggingEventBuilder atInfo() {
+        return this.atLevel(Level.INFO);
+    }
+
+    @Override
+    public LoggingEventBuilder atWarn() {
+        return this.atLevel(Level.WARN);
+    }
+
+    @Override
+    public LoggingEventBuilder atError() {
+        return this.atLevel(Level.ERROR);
+    }
+
+    @Override
+    public LoggingEventBuilder atLevel(final Level level) {
+        // The no-op builder is a stateless singleton, so disabled statements don't allocate anything
+        return this.isLevelEnabled(level)
+                ? new MindustryLoggingEventBuilder(this, level)
+                : NOPLoggingEventBuilder.singleton();
+    }
+
+    @Override
+    public LoggingEventBuilder makeLoggingEventBuilder(final Level level) {
+        return new MindustryLoggingEventBuilder(this, level);
+    }
+
+    /**
+     * Receives the events built outside of {@link MindustryLoggingEventBuilder}, which would otherwise merge their
+     * key-value pairs into the message.
+     */
+    @Override
+    public void log(final LoggingEvent event) {
+        final Level level = event.getLevel();
+        final Boolean output = this.isOutputEnabled(level, event.getMarkers());
+        if (output == null) {
+            return;
+        }
+        final String message = event.getMessage();
+        this.process(
+                level,
+                output,
+                message == null ? "null" : message,
+                event.getArgumentArray(),
+                event.getThrowable(),
+                event.getKeyValuePairs());
+    }
 
-        if (!this.name.equals(Logger.ROOT_LOGGER_NAME)) {
-            if (this.mod != null && MindustryLoggerMod.isShowModName()) {
-                builder.append(this.getColorCode(level))
-                        .append('[')
-                        .append(this.mod)
-                        .append("]&fr ");
+    /**
+     * Returns whether an enabled event carrying the markers is written to the outputs, or null if a marker denies
+     * it.
+     */
+    @Nullable Boolean isOutputEnabled(final Level level, final @Nullable List<Marker> markers) {
+        boolean output = this.isOutputEnabled(level, (Marker) null);
+        if (markers != null) {
+            for (final Marker marker : markers) {
+                if (!this.isLevelEnabled(level, marker)) {
+                    return null;
+                }
+                output |= this.isOutputEnabled(level, marker);
             }
-            if (MindustryLoggerMod.isShowClassName()) {
-                builder.append(this.getColorCode(level))
-                        .append('[')
-                        .append(this.name)
-                        .append("]&fr ");
+        }
+        return output;
+    }
+
+    void process(
+            final Level level,
+            final boolean output,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            final @Nullable Throwable throwable,
+            final @Nullable List<KeyValuePair> keyValues) {
+        final RecentEvents recentEvents = MindustryLoggerMod.getRecentEvents();
+        final Level captureLevel = MindustryLoggerMod.getCaptureLevel();
+        if (recentEvents != null && captureLevel != null && level.toInt() >= captureLevel.toInt()) {
+            recentEvents.record(System.currentTimeMillis(), this, level, messagePattern, arguments, throwable);
+        }
+        if (!output) {
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            this.refreshSettings();
+            // Sampled first, so the events left out don't use up the rate limits
+            final SamplingRule samplingRule = this.samplingRule;
+            if (samplingRule != null && !samplingRule.isSampled(level)) {
+                this.stats.recordSampled();
+                return;
             }
+            final RateLimiter rateLimiter = this.rateLimiter;
+            final RateLimiter modRateLimiter = this.modRateLimiter;
+            if ((rateLimiter != null && !rateLimiter.tryAcquire(level))
+                    || (modRateLimiter != null && !modRateLimiter.tryAcquire(level))) {
+                this.stats.recordDropped();
+                return;
+            }
+            final MessageSuppressor suppressor = this.suppressor;
+            if (suppressor != null && !suppressor.tryAcquire(level, messagePattern, arguments, throwable)) {
+                this.stats.recordSuppressed();
+                return;
+            }
+            this.stats.recordEmitted();
+            // Captured on the calling thread and only for emitted events, the stack is gone once dispatched
+            final String location = this.callerLocation ? CallerResolver.findLocation() : null;
+            this.dispatch(level, messagePattern, arguments, throwable, keyValues, location);
+        } finally {
+            LoggerStats.getHandleLatency().record(System.nanoTime() - start);
         }
+    }
 
-        if (level == Level.ERROR) {
-            builder.append(this.getColorCode(level));
+    void dispatch(
+            final Level level,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            final @Nullable Throwable throwable,
+            final @Nullable List<KeyValuePair> keyValues,
+            final @Nullable String location) {
+        final long timestamp = System.currentTimeMillis();
+        // Skip the thread-local reads when nothing renders them
+        final boolean structured = this.isStructuredOutput();
+        final Map<String, String> context = MindustryLoggerMod.getMdcKeys().length == 0 && !structured
+                ? Collections.emptyMap()
+                : MindustryMDCAdapter.getContextMap();
+        final String thread = structured ? Thread.currentThread().getName() : null;
+        final AsyncLogDispatcher dispatcher = MindustryLoggerMod.getAsyncDispatcher();
+        if (dispatcher != null
+                && dispatcher.enqueue(
+                        this,
+                        level,
+                        messagePattern,
+                        arguments,
+                        throwable,
+                        keyValues,
+                        context,
+                        thread,
+                        location,
+                        timestamp)) {
+            return;
         }
+        this.write(level, messagePattern, arguments, throwable, keyValues, context, thread, location, timestamp);
+    }
+
+    private boolean isStructuredOutput() {
+        final FileSink sink = MindustryLoggerMod.getFileSink();
+        return sink != null && this.fileRouted && sink.getFormat() == FileSinkFormat.JSON_LINES;
+    }
 
+    void write(
+            final Level level,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            @Nullable Throwable throwable,
+            final @Nullable List<KeyValuePair> keyValues,
+            final Map<String, String> context,
+            final @Nullable String thread,
+            final @Nullable String location,
+            final long timestamp) {
+        int argumentCount = arguments == null ? 0 : arguments.length;
         if (throwable == null
                 && arguments != null
-                && arguments.length != 0
-                && arguments[arguments.length - 1] instanceof Throwable) {
-            throwable = (Throwable) arguments[arguments.length - 1];
-            arguments = arguments.length == 1 ? null : Arrays.copyOf(arguments, arguments.length - 1);
+                && argumentCount != 0
+                && arguments[argumentCount - 1] instanceof Throwable) {
+            throwable = (Throwable) arguments[argumentCount - 1];
+            argumentCount--;
         }
 
-        builder.append(MessageFormatter.basicArrayFormat(messagePattern.replace("{}", "&fb&lb{}&fr"), arguments));
+        // Non-headless consoles don't support colors, render without them instead of adding then stripping them
+        final boolean colors = Vars.headless;
+        final String message = this.render(
+                level, messagePattern, arguments, argumentCount, throwable, keyValues, context, location, colors);
+        this.stats.recordFormatted(message.length());
+        final long start = System.nanoTime();
+        Log.log(MindustryLogger.fromSlf4jToArcLevel(level), message);
+        LoggerStats.getOutputLatency().record(System.nanoTime() - start);
 
-        if (throwable != null) {
-            final StringWriter sw = new StringWriter();
-            final PrintWriter pw = new PrintWriter(sw);
-            throwable.printStackTrace(pw);
-            builder.append(": ").append(sw);
+        if (!this.fileRouted) {
+            return;
+        }
+        final BinaryEventLog binaryLog = MindustryLoggerMod.getBinaryLog();
+        if (binaryLog != null) {
+            binaryLog.append(
+                    timestamp, level, this.name, this.getMod(), messagePattern, arguments, argumentCount, throwable);
+        }
+        final FileSink sink = MindustryLoggerMod.getFileSink();
+        if (sink == null) {
+            return;
+        }
+        if (sink.getFormat() == FileSinkFormat.JSON_LINES) {
+            final FormattingBuffer buffer = FormattingBuffer.acquire();
+            try {
+                JsonLinesEncoder.encode(
+                        buffer.builder(),
+                        timestamp,
+                        level,
+                        this.name,
+                        this.getMod(),
+                        thread,
+                        location,
+                        messagePattern,
+                        arguments,
+                        argumentCount,
+                        keyValues,
+                        context,
+                        throwable);
+                sink.append(timestamp, level, buffer.builder().toString());
+            } finally {
+                buffer.release();
+            }
+        } else if (colors) {
+            final String plain = this.render(
+                    level, messagePattern, arguments, argumentCount, throwable, keyValues, context, location, false);
+            sink.append(timestamp, level, plain);
+        } else {
+            sink.append(timestamp, level, message);
         }
+    }
 
-        final String message = Vars.headless ? builder.toString() : Log.removeColors(builder.toString());
-        Log.log(MindustryLogger.fromSlf4jToArcLevel(level), message);
+    private String render(
+            final Level level,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            final int argumentCount,
+            final @Nullable Throwable throwable,
+            final @Nullable List<KeyValuePair> keyValues,
+            final Map<String, String> context,
+            final @Nullable String location,
+            final boolean colors) {
+        final FormattingBuffer buffer = FormattingBuffer.acquire();
+        try {
+            final StringBuilder builder = buffer.builder();
+
+            builder.append(this.getPrefix(level, colors));
+            if (location != null) {
+                builder.append(this.getColorCode(level, colors)).append('[').append(location);
+                builder.append(colors ? "]&fr " : "] ");
+            }
+            if (!context.isEmpty()) {
+                this.appendContext(builder, level, context, colors);
+            }
+            if (level == Level.ERROR) {
+                builder.append(this.getColorCode(level, colors));
+            }
+            if (keyValues != null) {
+                // Same layout as the SLF4J fallback for loggers unaware of key-value pairs
+                for (final KeyValuePair pair : keyValues) {
+                    builder.append(pair.key).append('=');
+                    MessageTemplate.appendArgument(builder, pair.value);
+                    builder.append(' ');
+                }
+            }
+            MessageTemplate.of(messagePattern).format(builder, arguments, argumentCount, colors);
+
+            if (throwable != null) {
+                builder.append(": ");
+                ThrowableRenderer.render(builder, throwable);
+            }
+
+            // The templates and prefixes are already plain, but arguments and messages may bring color codes along
+            if (!colors && builder.indexOf("&") != -1) {
+                return Log.removeColors(builder.toString());
+            }
+            return builder.toString();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private String getPrefix(final Level level, final boolean colors) {
+        Prefixes prefixes = this.prefixes;
+        final int generation = MindustryLoggerMod.getDisplayGeneration();
+        if (prefixes == null || prefixes.generation != generation) {
+            prefixes = new Prefixes(generation, this.renderPrefixes(true), this.renderPrefixes(false));
+            this.prefixes = prefixes;
+        }
+        return (colors ? prefixes.colored : prefixes.plain)[level.ordinal()];
     }
 
-    private String getColorCode(final Level level) {
+    private String[] renderPrefixes(final boolean colors) {
+        final Level[] levels = Level.values();
+        final String[] prefixes = new String[levels.length];
+        for (final Level level : levels) {
+            final StringBuilder builder = new StringBuilder();
+            if (!this.name.equals(Logger.ROOT_LOGGER_NAME)) {
+                final String mod = this.getMod();
+                if (mod != null && MindustryLoggerMod.isShowModName()) {
+                    builder.append(this.getColorCode(level, colors)).append('[').append(mod);
+                    builder.append(colors ? "]&fr " : "] ");
+                }
+                if (MindustryLoggerMod.isShowClassName()) {
+                    builder.append(this.getColorCode(level, colors)).append('[').append(this.name);
+                    builder.append(colors ? "]&fr " : "] ");
+                }
+            }
+            prefixes[level.ordinal()] = builder.toString();
+        }
+        return prefixes;
+    }
+
+    private void appendContext(
+            final StringBuilder builder, final Level level, final Map<String, String> context, final boolean colors) {
+        boolean first = true;
+        for (final String key : MindustryLoggerMod.getMdcKeys()) {
+            final String value = context.get(key);
+            if (value == null) {
+                continue;
+            }
+            if (first) {
+                builder.append(this.getColorCode(level, colors)).append('[');
+                first = false;
+            } else {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        }
+        if (!first) {
+            builder.append(colors ? "]&fr " : "] ");
+        }
+    }
+
+    private String getColorCode(final Level level, final boolean colors) {
+        if (!colors) {
+            return "";
+        }
         switch (level) {
             case TRACE:
             case DEBUG:
@@ -167,6 +593,20 @@ public final class MindustryLogger extends AbstractLogger {
         }
     }
 
+    // Immutable so it can be shared between threads without synchronization
+    private static final class Prefixes {
+
+        private final int generation;
+        private final String[] colored;
+        private final String[] plain;
+
+        private Prefixes(final int generation, final String[] colored, final String[] plain) {
+            this.generation = generation;
+            this.colored = colored;
+            this.plain = plain;
+        }
+    }
+
     public static Log.LogLevel fromSlf4jToArcLevel(final Level level) {
         switch (level) {
             case TRACE:
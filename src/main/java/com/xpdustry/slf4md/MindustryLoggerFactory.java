@@ -30,8 +30,12 @@ import arc.util.serialization.Jval;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import mindustry.mod.Mod;
 import mindustry.mod.ModClassLoader;
 import mindustry.mod.Mods;
@@ -41,11 +45,21 @@ import org.slf4j.Logger;
 
 public final class MindustryLoggerFactory implements ILoggerFactory {
 
-    private static final String[] LOGGING_PACKAGES = {"org.slf4j", "java.util.logging", "sun.util.logging"};
+    private static final String[] LOGGING_PACKAGES = {
+        "com.xpdustry.slf4md.", "org.slf4j.", "java.util.logging.", "sun.util.logging."
+    };
     private static final String[] MOD_METADATA_NAMES = {"mod.json", "mod.hjson", "plugin.json", "plugin.hjson"};
 
+    // Every logger by name, including those with non-class names, so a repeated lookup never loads a class or walks
+    // the stack. The caller of a non-class name is only known from the stack, thus a name requested by several mods
+    // keeps the attribution of the first one
     private final Map<String, MindustryLogger> loggers = new ConcurrentHashMap<>();
     private final Json json = new Json();
+    private final LongAdder resolvedLoggers = new LongAdder();
+    private final LongAdder resolveNanos = new LongAdder();
+    // Weak keys so unloaded mods can be collected, empty values remember loaders without usable metadata.
+    // Parsing runs under the map lock, which also guards the json instance.
+    private final Map<ClassLoader, Optional<String>> displayNames = Collections.synchronizedMap(new WeakHashMap<>());
 
     {
         this.loggers.put(Logger.ROOT_LOGGER_NAME, new MindustryLogger(Logger.ROOT_LOGGER_NAME, null));
@@ -53,61 +67,94 @@ public final class MindustryLoggerFactory implements ILoggerFactory {
 
     @Override
     public Logger getLogger(final String name) {
-        if (this.loggers.containsKey(name)) {
-            return this.loggers.get(name);
+        final MindustryLogger cached = this.loggers.get(name);
+        if (cached != null) {
+            return cached;
         }
 
-        Class<?> caller;
-        boolean cache = true;
+        final long start = System.nanoTime();
+        final MindustryLogger logger = this.createLogger(name);
+        // Not computeIfAbsent, loading the class may run a static initializer that looks up loggers too
+        final MindustryLogger previous = this.loggers.putIfAbsent(name, logger);
+        if (previous != null) {
+            // Lost a race, only the lookups that create the cached logger are counted
+            return previous;
+        }
+        this.resolvedLoggers.increment();
+        this.resolveNanos.add(System.nanoTime() - start);
+        return logger;
+    }
 
-        try {
-            caller = Class.forName(name);
-        } catch (final ClassNotFoundException ignored1) {
-            final String candidate = this.tryFindCaller(Thread.currentThread().getStackTrace());
-            if (candidate == null) {
-                return new MindustryLogger(name, null);
-            }
-            try {
-                caller = Class.forName(candidate);
-                cache = false;
-            } catch (final ClassNotFoundException ignored2) {
-                return new MindustryLogger(name, null);
-            }
+    /**
+     * Returns how many loggers have been created, and thus not found in the cache.
+     */
+    long getResolvedLoggerCount() {
+        return this.resolvedLoggers.sum();
+    }
+
+    /**
+     * Returns the total time spent resolving loggers, in nanoseconds.
+     */
+    long getResolveNanos() {
+        return this.resolveNanos.sum();
+    }
+
+    private MindustryLogger createLogger(final String name) {
+        final Class<?> type = MindustryLoggerFactory.tryLoadClass(name);
+        if (type != null) {
+            // The mod is attributed on the first enabled log call, most class loggers never get there
+            return Mod.class.isAssignableFrom(type)
+                    ? this.createModLogger(type, name, true)
+                    : new MindustryLogger(name, type, this);
         }
 
-        if (Mod.class.isAssignableFrom(caller)) {
-            final String display = this.getModDisplayName(caller.getClassLoader());
-            if (display == null) {
-                return new MindustryLogger(name, null);
-            }
-            // Mod loggers are found on the first lookup, thus if the cache flag is false,
-            // it means a custom logger has been created inside the mod class
-            final MindustryLogger logger =
-                    cache ? new MindustryLogger(display, display) : new MindustryLogger(name, display);
-            if (cache) {
-                this.loggers.put(name, logger);
-            }
-            return logger;
+        // Not a class name, so the logger is attributed to the mod of its caller, which is only known right now
+        final Class<?> caller = CallerResolver.findCaller();
+        if (caller == null) {
+            return new MindustryLogger(name, null);
+        }
+        return Mod.class.isAssignableFrom(caller)
+                ? this.createModLogger(caller, name, false)
+                : new MindustryLogger(name, this.getModDisplayName(caller));
+    }
+
+    private MindustryLogger createModLogger(final Class<?> type, final String name, final boolean named) {
+        final String display = this.getModDisplayName(type.getClassLoader());
+        if (display == null) {
+            return new MindustryLogger(name, null);
         }
+        // Mod loggers are named after the mod,
+        // unless it's a custom logger created inside the mod class
+        return named ? new MindustryLogger(display, display) : new MindustryLogger(name, display);
+    }
 
-        ClassLoader loader = caller.getClassLoader();
-        String display = null;
+    /**
+     * Returns the display name of the mod that loaded the given class.
+     */
+    @Nullable String getModDisplayName(final Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
         while (loader != null) {
             if (loader.getParent() instanceof ModClassLoader) {
-                display = this.getModDisplayName(loader);
-                break;
+                return this.getModDisplayName(loader);
             }
             loader = loader.getParent();
         }
+        return null;
+    }
 
-        final MindustryLogger logger = new MindustryLogger(name, display);
-        if (cache) {
-            this.loggers.put(name, logger);
+    private static @Nullable Class<?> tryLoadClass(final String name) {
+        try {
+            return Class.forName(name);
+        } catch (final ClassNotFoundException ignored) {
+            return null;
         }
-        return logger;
     }
 
     private @Nullable String getModDisplayName(final ClassLoader loader) {
+        return this.displayNames.computeIfAbsent(loader, this::readModDisplayName).orElse(null);
+    }
+
+    private Optional<String> readModDisplayName(final ClassLoader loader) {
         InputStream resource = null;
         for (final String name : MindustryLoggerFactory.MOD_METADATA_NAMES) {
             resource = loader.getResourceAsStream(name);
@@ -116,7 +163,7 @@ public final class MindustryLoggerFactory implements ILoggerFactory {
             }
         }
         if (resource == null) {
-            return null;
+            return Optional.empty();
         }
         try (final InputStream input = resource) {
             final Mods.ModMeta meta = this.json.fromJson(
@@ -124,28 +171,21 @@ public final class MindustryLoggerFactory implements ILoggerFactory {
                     Jval.read(new InputStreamReader(input, StandardCharsets.UTF_8))
                             .toString(Jval.Jformat.plain));
             meta.cleanup();
-            return meta.displayName;
+            return Optional.ofNullable(meta.displayName);
         } catch (final Exception e) {
-            return null;
+            return Optional.empty();
         }
     }
 
-    private @Nullable String tryFindCaller(final StackTraceElement[] stacktrace) {
-        loop:
-        for (int i = 0; i <= stacktrace.length; i++) {
-            // 0: stacktrace call, 1: DistributorLoggerFactory#getLogger, 2: LoggerFactory#getLogger
-            if (i < 3) {
-                continue;
-            }
-            final String name = stacktrace[i].getClassName();
-            // Skip the logger wrappers
-            for (final String pkg : MindustryLoggerFactory.LOGGING_PACKAGES) {
-                if (name.startsWith(pkg)) {
-                    continue loop;
-                }
+    /**
+     * Returns whether the given class belongs to SLF4MD or a logging framework, and thus isn't the caller.
+     */
+    static boolean isLoggingClass(final String name) {
+        for (final String pkg : MindustryLoggerFactory.LOGGING_PACKAGES) {
+            if (name.startsWith(pkg)) {
+                return true;
             }
-            return name;
         }
-        return null;
+        return false;
     }
 }
@@ -25,17 +25,34 @@
  */
 package com.xpdustry.slf4md;
 
+import arc.ApplicationListener;
+import arc.Core;
 import arc.files.Fi;
 import arc.struct.ObjectMap;
 import arc.util.CommandHandler;
 import arc.util.Log;
 import arc.util.serialization.Jval;
+import java.io.IOException;
 import java.io.Reader;
-import java.io.Writer;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import mindustry.Vars;
 import mindustry.mod.Mod;
 import org.jspecify.annotations.Nullable;
@@ -50,11 +67,87 @@ public final class MindustryLoggerMod extends Mod {
     private static boolean showClassName = false;
     private static boolean showModName = true;
     private static boolean traceEnabled = false;
+    private static boolean asyncEnabled = false;
+    private static int asyncBufferSize = 8192;
+    private static AsyncOverflowPolicy asyncOverflowPolicy = AsyncOverflowPolicy.BLOCK;
+    private static volatile @Nullable AsyncLogDispatcher asyncDispatcher = null;
+    private static boolean fileSinkEnabled = false;
+    private static String fileSinkName = "slf4md";
+    private static FileSinkFormat fileSinkFormat = FileSinkFormat.TEXT;
+    private static int fileSinkBufferSize = 64 * 1024;
+    private static int fileSinkQueueSize = 8192;
+    private static long fileSinkMaxSize = 10L * 1024L * 1024L;
+    private static int fileSinkRotationHours = 24;
+    private static boolean fileSinkCompress = true;
+    private static int fileSinkMaxArchives = 10;
+    private static volatile @Nullable FileSink fileSink = null;
+    private static boolean binaryLogEnabled = false;
+    private static int binaryLogSegmentSize = 16 * 1024 * 1024;
+    private static int binaryLogMaxSegments = 32;
+    private static volatile @Nullable BinaryEventLog binaryLog = null;
+    private static final Map<String, Boolean> fileRoutes = new ConcurrentHashMap<>();
+    private static volatile @Nullable Level captureLevel = null;
+    private static int recentBufferSize = 2048;
+    private static boolean recentDumpOnError = false;
+    private static volatile @Nullable RecentEvents recentEvents = null;
+    private static volatile LoggerTree<Boolean> fileRouteTree = LoggerTree.empty();
+    private static final Map<String, Boolean> fileModRoutes = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> callerLocations = new ConcurrentHashMap<>();
+    private static volatile LoggerTree<Boolean> callerLocationTree = LoggerTree.empty();
+    private static volatile int stackTraceMaxDepth = 0;
+    private static volatile String[] stackTraceFilters = new String[0];
+    private static volatile String[] mdcKeys = new String[0];
     private static final Map<String, Level> levels = new ConcurrentHashMap<>();
+    // The level rule names as configured, keyed by their lowercase form, since JUL logger names are case-sensitive
+    private static final Map<String, String> levelNames = new ConcurrentHashMap<>();
+    private static volatile LoggerTree<Level> levelTree = LoggerTree.empty();
+    private static final Map<String, SuppressionRule> suppressionRules = new ConcurrentHashMap<>();
+    private static volatile LoggerTree<SuppressionRule> suppressionTree = LoggerTree.empty();
+    private static final Map<String, MarkerRule> markerRules = new ConcurrentHashMap<>();
+    private static volatile LoggerTree<MarkerRule> markerTree = LoggerTree.empty();
+    private static final Map<String, SamplingRule> samplingRules = new ConcurrentHashMap<>();
+    private static volatile LoggerTree<SamplingRule> samplingTree = LoggerTree.empty();
+    private static final Map<String, RateLimitRule> rateLimitRules = new ConcurrentHashMap<>();
+    private static volatile LoggerTree<RateLimitRule> rateLimitTree = LoggerTree.empty();
+    private static final Map<String, RateLimitRule> modRateLimitRules = new ConcurrentHashMap<>();
+    private static final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private static final Map<String, RateLimiter> modRateLimiters = new ConcurrentHashMap<>();
+    private static final AtomicInteger levelGeneration = new AtomicInteger(1);
+    private static final long SAVE_DEBOUNCE_MILLIS = 500L;
+    private static final long RELOAD_DEBOUNCE_MILLIS = 250L;
+    private static final AtomicInteger pendingSaves = new AtomicInteger();
+    private static final AtomicInteger pendingReloads = new AtomicInteger();
+    private static volatile @Nullable String savedConfig = null;
+    // The settings in memory at the last load or save, tells the keys changed since from those edited in the file
+    private static volatile @Nullable Jval savedSettings = null;
+    private static volatile @Nullable ConfigWatcher configWatcher = null;
+    private static final AtomicInteger displayGeneration = new AtomicInteger();
+    // Not volatile on purpose, a stale read only causes a redundant invalidation
+    private static Log.LogLevel observedRootLevel = Log.level;
+
+    private static long settingsLoadNanos = 0L;
+    private static long bridgeInstallNanos = 0L;
+    private static volatile boolean julLevelPropagation = false;
 
     static {
         // Do the thing!
+        final long start = System.nanoTime();
         MindustryLoggerMod.load();
+        MindustryLoggerMod.savedSettings = MindustryLoggerMod.toConfig();
+        MindustryLoggerMod.settingsLoadNanos = System.nanoTime() - start;
+        if (MindustryLoggerMod.asyncEnabled) {
+            MindustryLoggerMod.startAsyncDispatcher();
+        }
+        if (MindustryLoggerMod.fileSinkEnabled) {
+            MindustryLoggerMod.startFileSink();
+        }
+        if (MindustryLoggerMod.binaryLogEnabled) {
+            MindustryLoggerMod.startBinaryLog();
+        }
+        if (MindustryLoggerMod.captureLevel != null) {
+            MindustryLoggerMod.startRecentEvents();
+        }
+        MindustryLoggerMod.startConfigWatcher();
 
         // Class loader trickery to use the ModClassLoader instead of the root
         final ClassLoader rootClassLoader = Thread.currentThread().getContextClassLoader();
@@ -71,10 +164,18 @@ public final class MindustryLoggerMod extends Mod {
             } else {
                 final Logger logger = factory.getLogger(MindustryLoggerMod.class.getName());
                 logger.info("Initialized SLF4MD");
+                final long bridgeStart = System.nanoTime();
                 try {
                     // Redirect JUL to SLF4J
                     SLF4JBridgeHandler.removeHandlersForRootLogger();
                     SLF4JBridgeHandler.install();
+                    JulLevelPropagator.propagate();
+                    MindustryLoggerMod.julLevelPropagation = true;
+                    MindustryLoggerMod.bridgeInstallNanos = System.nanoTime() - bridgeStart;
+                    // Arc's log level is a plain field, poll it so JUL follows even when nothing logs through SLF4J
+                    MindustryLoggerMod.getScheduler()
+                            .scheduleWithFixedDelay(
+                                    MindustryLoggerMod::pollRootLevel, 1L, 1L, TimeUnit.SECONDS);
                     logger.debug("Successfully redirected java logging to SLF4MD");
                 } catch (final NoClassDefFoundError e) {
                     logger.warn("Java logging classes are missing, skipping redirection", e);
@@ -96,6 +197,7 @@ public final class MindustryLoggerMod extends Mod {
 
     public static void setShowClassName(final boolean showClassName) {
         MindustryLoggerMod.showClassName = showClassName;
+        MindustryLoggerMod.displayGeneration.incrementAndGet();
         MindustryLoggerMod.save();
     }
 
@@ -105,6 +207,7 @@ public final class MindustryLoggerMod extends Mod {
 
     public static void setShowModName(boolean showModName) {
         MindustryLoggerMod.showModName = showModName;
+        MindustryLoggerMod.displayGeneration.incrementAndGet();
         MindustryLoggerMod.save();
     }
 
@@ -114,6 +217,296 @@ public final class MindustryLoggerMod extends Mod {
 
     public static void setTraceEnabled(final boolean traceEnabled) {
         MindustryLoggerMod.traceEnabled = traceEnabled;
+        MindustryLoggerMod.invalidateLevelRules();
+        MindustryLoggerMod.save();
+    }
+
+    public static boolean isAsyncEnabled() {
+        return MindustryLoggerMod.asyncEnabled;
+    }
+
+    public static synchronized void setAsyncEnabled(final boolean asyncEnabled) {
+        MindustryLoggerMod.asyncEnabled = asyncEnabled;
+        if (asyncEnabled) {
+            MindustryLoggerMod.startAsyncDispatcher();
+        } else {
+            MindustryLoggerMod.stopAsyncDispatcher();
+        }
+        MindustryLoggerMod.save();
+    }
+
+    public static AsyncOverflowPolicy getAsyncOverflowPolicy() {
+        return MindustryLoggerMod.asyncOverflowPolicy;
+    }
+
+    public static synchronized void setAsyncOverflowPolicy(final AsyncOverflowPolicy policy) {
+        MindustryLoggerMod.asyncOverflowPolicy = policy;
+        final AsyncLogDispatcher dispatcher = MindustryLoggerMod.asyncDispatcher;
+        if (dispatcher != null) {
+            dispatcher.setPolicy(policy);
+        }
+        MindustryLoggerMod.save();
+    }
+
+    static @Nullable AsyncLogDispatcher getAsyncDispatcher() {
+        return MindustryLoggerMod.asyncDispatcher;
+    }
+
+    private static synchronized void startAsyncDispatcher() {
+        if (MindustryLoggerMod.asyncDispatcher == null) {
+            MindustryLoggerMod.asyncDispatcher = new AsyncLogDispatcher(
+                    MindustryLoggerMod.asyncBufferSize, MindustryLoggerMod.asyncOverflowPolicy);
+        }
+    }
+
+    private static synchronized void stopAsyncDispatcher() {
+        final AsyncLogDispatcher dispatcher = MindustryLoggerMod.asyncDispatcher;
+        if (dispatcher != null) {
+            // Unpublished once flushed, the events logged in the meantime wait for the queued ones to be written
+            dispatcher.shutdown();
+            MindustryLoggerMod.asyncDispatcher = null;
+        }
+    }
+
+    public static boolean isFileSinkEnabled() {
+        return MindustryLoggerMod.fileSinkEnabled;
+    }
+
+    public static synchronized void setFileSinkEnabled(final boolean fileSinkEnabled) {
+        MindustryLoggerMod.fileSinkEnabled = fileSinkEnabled;
+        if (fileSinkEnabled) {
+            MindustryLoggerMod.startFileSink();
+        } else {
+            MindustryLoggerMod.stopFileSink();
+        }
+        MindustryLoggerMod.save();
+    }
+
+    public static FileSinkFormat getFileSinkFormat() {
+        return MindustryLoggerMod.fileSinkFormat;
+    }
+
+    public static synchronized void setFileSinkFormat(final FileSinkFormat format) {
+        MindustryLoggerMod.fileSinkFormat = format;
+        // The sink is restarted on a new file, the writer thread is bound to a single format
+        if (MindustryLoggerMod.fileSink != null) {
+            MindustryLoggerMod.stopFileSink();
+            MindustryLoggerMod.startFileSink();
+        }
+        MindustryLoggerMod.save();
+    }
+
+    static @Nullable FileSink getFileSink() {
+        return MindustryLoggerMod.fileSink;
+    }
+
+    private static synchronized void startFileSink() {
+        if (MindustryLoggerMod.fileSink == null) {
+            MindustryLoggerMod.fileSink = new FileSink(
+                    Vars.modDirectory.child("slf4md").child("logs").file().toPath(),
+                    MindustryLoggerMod.fileSinkName,
+                    MindustryLoggerMod.fileSinkFormat,
+                    MindustryLoggerMod.fileSinkBufferSize,
+                    MindustryLoggerMod.fileSinkQueueSize,
+                    MindustryLoggerMod.fileSinkMaxSize,
+                    MindustryLoggerMod.fileSinkRotationHours,
+                    MindustryLoggerMod.fileSinkCompress,
+                    MindustryLoggerMod.fileSinkMaxArchives);
+        }
+    }
+
+    private static synchronized void stopFileSink() {
+        final FileSink sink = MindustryLoggerMod.fileSink;
+        if (sink != null) {
+            MindustryLoggerMod.fileSink = null;
+            sink.shutdown();
+        }
+    }
+
+    public static boolean isBinaryLogEnabled() {
+        return MindustryLoggerMod.binaryLogEnabled;
+    }
+
+    public static synchronized void setBinaryLogEnabled(final boolean binaryLogEnabled) {
+        MindustryLoggerMod.binaryLogEnabled = binaryLogEnabled;
+        if (binaryLogEnabled) {
+            MindustryLoggerMod.startBinaryLog();
+        } else {
+            MindustryLoggerMod.stopBinaryLog();
+        }
+        MindustryLoggerMod.save();
+    }
+
+    static @Nullable BinaryEventLog getBinaryLog() {
+        return MindustryLoggerMod.binaryLog;
+    }
+
+    private static synchronized void startBinaryLog() {
+        if (MindustryLoggerMod.binaryLog == null) {
+            MindustryLoggerMod.binaryLog = new BinaryEventLog(
+                    Vars.modDirectory.child("slf4md").child("logs").file().toPath(),
+                    MindustryLoggerMod.fileSinkName,
+                    MindustryLoggerMod.binaryLogSegmentSize,
+                    MindustryLoggerMod.binaryLogMaxSegments);
+        }
+    }
+
+    private static synchronized void stopBinaryLog() {
+        final BinaryEventLog log = MindustryLoggerMod.binaryLog;
+        if (log != null) {
+            MindustryLoggerMod.binaryLog = null;
+            log.shutdown();
+        }
+    }
+
+    public static @Nullable Level getCaptureLevel() {
+        return MindustryLoggerMod.captureLevel;
+    }
+
+    public static synchronized void setCaptureLevel(final @Nullable Level captureLevel) {
+        MindustryLoggerMod.captureLevel = captureLevel;
+        if (captureLevel == null) {
+            MindustryLoggerMod.recentEvents = null;
+        } else {
+            MindustryLoggerMod.startRecentEvents();
+        }
+        MindustryLoggerMod.invalidateLevelRules();
+        MindustryLoggerMod.save();
+    }
+
+    public static boolean isRecentDumpOnError() {
+        return MindustryLoggerMod.recentDumpOnError;
+    }
+
+    public static synchronized void setRecentDumpOnError(final boolean recentDumpOnError) {
+        MindustryLoggerMod.recentDumpOnError = recentDumpOnError;
+        final RecentEvents events = MindustryLoggerMod.recentEvents;
+        if (events != null) {
+            events.setDumpOnError(recentDumpOnError);
+        }
+        MindustryLoggerMod.save();
+    }
+
+    static @Nullable RecentEvents getRecentEvents() {
+        return MindustryLoggerMod.recentEvents;
+    }
+
+    private static synchronized void startRecentEvents() {
+        if (MindustryLoggerMod.recentEvents == null) {
+            MindustryLoggerMod.recentEvents = new RecentEvents(
+                    MindustryLoggerMod.recentBufferSize,
+                    Vars.modDirectory.child("slf4md").child("dumps").file().toPath(),
+                    MindustryLoggerMod.recentDumpOnError);
+        }
+    }
+
+    /**
+     * Returns whether the events of a logger go to the file sink and the binary log. The most specific logger route
+     * wins, then the route of the mod, then the route set on the root logger, and events are routed by default.
+     */
+    static boolean isFileRouted(final String logger, final @Nullable String mod) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        final LoggerTree<Boolean> tree = MindustryLoggerMod.fileRouteTree;
+        final Boolean route = tree.resolve(name);
+        if (route != null && !Logger.ROOT_LOGGER_NAME.equalsIgnoreCase(tree.resolveRule(name))) {
+            return route;
+        }
+        if (mod != null) {
+            final Boolean modRoute = MindustryLoggerMod.fileModRoutes.get(mod.toLowerCase(Locale.ROOT));
+            if (modRoute != null) {
+                return modRoute;
+            }
+        }
+        return route == null || route;
+    }
+
+    static void setFileRoute(final String logger, final @Nullable Boolean route) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        if (route == null) {
+            MindustryLoggerMod.fileRoutes.remove(name);
+        } else {
+            MindustryLoggerMod.fileRoutes.put(name, route);
+        }
+        MindustryLoggerMod.fileRouteTree = LoggerTree.compile(MindustryLoggerMod.fileRoutes);
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    static void setFileModRoute(final String mod, final @Nullable Boolean route) {
+        final String name = mod.toLowerCase(Locale.ROOT);
+        if (route == null) {
+            MindustryLoggerMod.fileModRoutes.remove(name);
+        } else {
+            MindustryLoggerMod.fileModRoutes.put(name, route);
+        }
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    /**
+     * Returns whether the events of a logger are rendered with the location of their log call, which is off by
+     * default since it walks the stack on every emitted event.
+     */
+    static boolean isCallerLocationEnabled(final String logger) {
+        final Boolean enabled = MindustryLoggerMod.callerLocationTree.resolve(logger.toLowerCase(Locale.ROOT));
+        return enabled != null && enabled;
+    }
+
+    static void setCallerLocation(final String logger, final @Nullable Boolean enabled) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        if (enabled == null) {
+            MindustryLoggerMod.callerLocations.remove(name);
+        } else {
+            MindustryLoggerMod.callerLocations.put(name, enabled);
+        }
+        MindustryLoggerMod.callerLocationTree = LoggerTree.compile(MindustryLoggerMod.callerLocations);
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    public static int getStackTraceMaxDepth() {
+        return MindustryLoggerMod.stackTraceMaxDepth;
+    }
+
+    public static void setStackTraceMaxDepth(final int stackTraceMaxDepth) {
+        MindustryLoggerMod.stackTraceMaxDepth = Math.max(0, stackTraceMaxDepth);
+        MindustryLoggerMod.save();
+    }
+
+    public static String[] getStackTraceFilters() {
+        return MindustryLoggerMod.stackTraceFilters;
+    }
+
+    public static synchronized boolean addStackTraceFilter(final String pkg) {
+        final String[] filters = MindustryLoggerMod.stackTraceFilters;
+        if (Arrays.asList(filters).contains(pkg)) {
+            return false;
+        }
+        final String[] copy = Arrays.copyOf(filters, filters.length + 1);
+        copy[filters.length] = pkg;
+        MindustryLoggerMod.stackTraceFilters = copy;
+        MindustryLoggerMod.save();
+        return true;
+    }
+
+    public static synchronized boolean removeStackTraceFilter(final String pkg) {
+        final String[] filters = MindustryLoggerMod.stackTraceFilters;
+        final String[] copy =
+                Arrays.stream(filters).filter(filter -> !filter.equals(pkg)).toArray(String[]::new);
+        if (copy.length == filters.length) {
+            return false;
+        }
+        MindustryLoggerMod.stackTraceFilters = copy;
+        MindustryLoggerMod.save();
+        return true;
+    }
+
+    public static String[] getMdcKeys() {
+        return MindustryLoggerMod.mdcKeys;
+    }
+
+    public static void setMdcKeys(final String... mdcKeys) {
+        MindustryLoggerMod.mdcKeys = mdcKeys.clone();
         MindustryLoggerMod.save();
     }
 
@@ -146,38 +539,380 @@ public final class MindustryLoggerMod extends Mod {
         final String name = logger.toLowerCase(Locale.ROOT);
         if (level == null) {
             MindustryLoggerMod.levels.remove(name);
+            MindustryLoggerMod.levelNames.remove(name);
         } else {
             MindustryLoggerMod.levels.put(name, level);
+            MindustryLoggerMod.levelNames.put(name, logger);
         }
+        MindustryLoggerMod.levelTree = LoggerTree.compile(MindustryLoggerMod.levels);
+        MindustryLoggerMod.invalidateLevelRules();
         MindustryLoggerMod.save();
     }
 
     public static boolean hasAtLeastLevel(final String logger, final Level level) {
-        Level configuredLevel = MindustryLoggerMod.getLoggerLevel(logger);
-        if (configuredLevel == null) {
-            configuredLevel = MindustryLoggerMod.getRootLoggerLevel();
-        }
+        final Level configuredLevel = MindustryLoggerMod.getEffectiveLevel(logger);
         if (configuredLevel == null) {
             return false;
         }
         return level.toInt() >= configuredLevel.toInt();
     }
 
+    /**
+     * Returns the lowest level a logger accepts, either to output it or to capture it in the recent events.
+     */
+    static @Nullable Level getEnabledLevel(final String logger) {
+        final Level level = MindustryLoggerMod.getEffectiveLevel(logger);
+        final Level captureLevel = MindustryLoggerMod.captureLevel;
+        if (captureLevel == null || (level != null && level.toInt() <= captureLevel.toInt())) {
+            return level;
+        }
+        return captureLevel;
+    }
+
+    static @Nullable Level getEffectiveLevel(final String logger) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        if (name.equals(Logger.ROOT_LOGGER_NAME.toLowerCase(Locale.ROOT))) {
+            return MindustryLoggerMod.getRootLoggerLevel();
+        }
+        final Level configuredLevel = MindustryLoggerMod.levelTree.resolve(name);
+        return configuredLevel == null ? MindustryLoggerMod.getRootLoggerLevel() : configuredLevel;
+    }
+
+    /**
+     * Returns the level of the most specific rule matching the logger, ignoring the root level.
+     */
+    static @Nullable Level getConfiguredLevel(final String logger) {
+        return MindustryLoggerMod.levelTree.resolve(logger.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the names of the level rules, in the case they were configured with.
+     */
+    static Collection<String> getConfiguredLoggerNames() {
+        return Collections.unmodifiableCollection(MindustryLoggerMod.levelNames.values());
+    }
+
+    public static @Nullable SuppressionRule getExplicitSuppressionRule(final String logger) {
+        return MindustryLoggerMod.suppressionRules.get(logger.toLowerCase(Locale.ROOT));
+    }
+
+    static @Nullable SuppressionRule getSuppressionRule(final String logger) {
+        return MindustryLoggerMod.suppressionTree.resolve(logger.toLowerCase(Locale.ROOT));
+    }
+
+    public static void setSuppressionRule(final String logger, final @Nullable SuppressionRule rule) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        if (rule == null) {
+            MindustryLoggerMod.suppressionRules.remove(name);
+        } else {
+            MindustryLoggerMod.suppressionRules.put(name, rule);
+        }
+        MindustryLoggerMod.suppressionTree = LoggerTree.compile(MindustryLoggerMod.suppressionRules);
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    static @Nullable MarkerRule getMarkerRule(final String logger) {
+        return MindustryLoggerMod.markerTree.resolve(logger.toLowerCase(Locale.ROOT));
+    }
+
+    static void setMarkerRule(final String logger, final @Nullable MarkerRule rule) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        if (rule == null) {
+            MindustryLoggerMod.markerRules.remove(name);
+        } else {
+            MindustryLoggerMod.markerRules.put(name, rule);
+        }
+        MindustryLoggerMod.markerTree = LoggerTree.compile(MindustryLoggerMod.markerRules);
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    static @Nullable SamplingRule getSamplingRule(final String logger) {
+        return MindustryLoggerMod.samplingTree.resolve(logger.toLowerCase(Locale.ROOT));
+    }
+
+    static void setSamplingRule(final String logger, final @Nullable SamplingRule rule) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        if (rule == null) {
+            MindustryLoggerMod.samplingRules.remove(name);
+        } else {
+            MindustryLoggerMod.samplingRules.put(name, rule);
+        }
+        MindustryLoggerMod.samplingTree = LoggerTree.compile(MindustryLoggerMod.samplingRules);
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    public static void setRateLimitRule(final String logger, final @Nullable RateLimitRule rule) {
+        final String name = logger.toLowerCase(Locale.ROOT);
+        if (rule == null) {
+            MindustryLoggerMod.rateLimitRules.remove(name);
+            MindustryLoggerMod.rateLimiters.remove(name);
+        } else {
+            MindustryLoggerMod.rateLimitRules.put(name, rule);
+        }
+        MindustryLoggerMod.rateLimitTree = LoggerTree.compile(MindustryLoggerMod.rateLimitRules);
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    public static void setModRateLimitRule(final String mod, final @Nullable RateLimitRule rule) {
+        final String name = mod.toLowerCase(Locale.ROOT);
+        if (rule == null) {
+            MindustryLoggerMod.modRateLimitRules.remove(name);
+            MindustryLoggerMod.modRateLimiters.remove(name);
+        } else {
+            MindustryLoggerMod.modRateLimitRules.put(name, rule);
+        }
+        MindustryLoggerMod.invalidateLevels();
+        MindustryLoggerMod.save();
+    }
+
+    /**
+     * Returns the rate limiter of a logger, shared by all the loggers under the package or logger owning its rule.
+     */
+    static @Nullable RateLimiter getRateLimiter(final String logger) {
+        final LoggerTree<RateLimitRule> tree = MindustryLoggerMod.rateLimitTree;
+        final String name = logger.toLowerCase(Locale.ROOT);
+        final String owner = tree.resolveRule(name);
+        if (owner == null) {
+            return null;
+        }
+        return MindustryLoggerMod.getRateLimiter(MindustryLoggerMod.rateLimiters, owner, tree.resolve(owner));
+    }
+
+    /**
+     * Returns the rate limiter of a mod, shared by all the loggers of the mod.
+     */
+    static @Nullable RateLimiter getModRateLimiter(final String mod) {
+        final String name = mod.toLowerCase(Locale.ROOT);
+        final RateLimitRule rule = MindustryLoggerMod.modRateLimitRules.get(name);
+        return MindustryLoggerMod.getRateLimiter(MindustryLoggerMod.modRateLimiters, name, rule);
+    }
+
+    private static @Nullable RateLimiter getRateLimiter(
+            final Map<String, RateLimiter> limiters, final String name, final @Nullable RateLimitRule rule) {
+        if (rule == null) {
+            limiters.remove(name);
+            return null;
+        }
+        // Keep the current buckets and drop count if the rule didn't change
+        return limiters.compute(
+                name,
+                (key, limiter) ->
+                        limiter != null && limiter.getRule().equals(rule) ? limiter : new RateLimiter(rule));
+    }
+
+    static ScheduledExecutorService getScheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    /**
+     * Returns the current level generation, loggers must re-resolve their effective level and per-logger
+     * settings when it changes.
+     */
+    static int getLevelGeneration() {
+        return MindustryLoggerMod.levelGeneration.get();
+    }
+
+    /**
+     * Invalidates the levels if Arc's {@link Log#level} changed since the last poll. It is a plain field, so its
+     * changes are detected by the loggers before they read their level cache instead of at the source.
+     */
+    static void pollRootLevel() {
+        final Log.LogLevel current = Log.level;
+        if (current != MindustryLoggerMod.observedRootLevel) {
+            MindustryLoggerMod.observedRootLevel = current;
+            MindustryLoggerMod.invalidateLevelRules();
+        }
+    }
+
+    /**
+     * Returns the current display generation, loggers must re-render their prefixes when it changes.
+     */
+    static int getDisplayGeneration() {
+        return MindustryLoggerMod.displayGeneration.get();
+    }
+
+    static void invalidateLevels() {
+        // Generations fit in 24 bits and never wrap to 0, the value of an unresolved logger cache
+        MindustryLoggerMod.levelGeneration.updateAndGet(generation -> generation == 0xFFFFFF ? 1 : generation + 1);
+    }
+
+    /**
+     * Invalidates the levels after a change of the level or capture rules, which are also propagated to JUL.
+     */
+    private static void invalidateLevelRules() {
+        MindustryLoggerMod.invalidateLevels();
+        if (MindustryLoggerMod.julLevelPropagation) {
+            JulLevelPropagator.schedule();
+        }
+    }
+
+    /**
+     * Schedules a save of the settings, the changes made within the debounce window are written at once.
+     */
     private static void save() {
-        final Fi configFile = Vars.modDirectory.child("slf4md").child("config.json");
+        // Always written, so the save that observes a request also observes the changes made before it
+        if (MindustryLoggerMod.pendingSaves.getAndIncrement() == 0) {
+            MindustryLoggerMod.getScheduler()
+                    .schedule(MindustryLoggerMod::flushSave, SAVE_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the pending changes right away, if any.
+     */
+    private static synchronized void flushSave() {
+        if (MindustryLoggerMod.pendingSaves.getAndSet(0) == 0) {
+            return;
+        }
+        final Path file = MindustryLoggerMod.getConfigPath();
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            final Jval settings = MindustryLoggerMod.toConfig();
+            final StringWriter writer = new StringWriter();
+            MindustryLoggerMod.mergeExternalEdits(file, settings).writeTo(writer, Jval.Jformat.formatted);
+            final String config = writer.toString();
+            // Set first, the watcher may see the new file before the move returns
+            MindustryLoggerMod.savedConfig = config;
+            MindustryLoggerMod.savedSettings = settings;
+            Files.createDirectories(file.getParent());
+            Files.write(temporary, config.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final Exception e) {
+            Log.err("Failed to save settings to disk", e);
+        }
+    }
+
+    /**
+     * Keeps the settings edited in the file since the last load or save, unless they were also changed in memory.
+     * Only the log levels are reloaded while the game runs, the other edits would otherwise be overwritten.
+     */
+    private static Jval mergeExternalEdits(final Path file, final Jval settings) {
+        final Jval previous = MindustryLoggerMod.savedSettings;
+        if (previous == null || !Files.exists(file)) {
+            return settings;
+        }
+        final Jval edited;
+        try {
+            edited = Jval.read(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (final Exception e) {
+            // Unreadable, the file is replaced by the settings in memory
+            return settings;
+        }
+        if (edited == null || !edited.isObject()) {
+            return settings;
+        }
+        final Jval merged = Jval.newObject();
+        for (final ObjectMap.Entry<String, Jval> entry : settings.asObject()) {
+            final Jval before = previous.get(entry.key);
+            final Jval after = edited.get(entry.key);
+            final boolean changed = before == null
+                    || !before.toString(Jval.Jformat.plain).equals(entry.value.toString(Jval.Jformat.plain));
+            merged.put(entry.key, changed || after == null ? entry.value : after);
+        }
+        // Unknown keys too, they may belong to another version of SLF4MD
+        for (final ObjectMap.Entry<String, Jval> entry : edited.asObject()) {
+            if (settings.get(entry.key) == null) {
+                merged.put(entry.key, entry.value);
+            }
+        }
+        return merged;
+    }
+
+    private static Path getConfigPath() {
+        return Vars.modDirectory.child("slf4md").child("config.json").file().toPath();
+    }
+
+    private static Jval toConfig() {
         final Jval object = Jval.newObject()
                 .put("show-class-name", MindustryLoggerMod.showClassName)
                 .put("show-mod-name", MindustryLoggerMod.showModName)
-                .put("trace-enabled", MindustryLoggerMod.traceEnabled);
+                .put("trace-enabled", MindustryLoggerMod.traceEnabled)
+                .put("async-enabled", MindustryLoggerMod.asyncEnabled)
+                .put("async-buffer-size", MindustryLoggerMod.asyncBufferSize)
+                .put("async-overflow-policy", MindustryLoggerMod.asyncOverflowPolicy.getConfigName())
+                .put("file-sink-enabled", MindustryLoggerMod.fileSinkEnabled)
+                .put("file-sink-name", MindustryLoggerMod.fileSinkName)
+                .put("file-sink-format", MindustryLoggerMod.fileSinkFormat.getConfigName())
+                .put("file-sink-buffer-size", MindustryLoggerMod.fileSinkBufferSize)
+                .put("file-sink-queue-size", MindustryLoggerMod.fileSinkQueueSize)
+                .put("file-sink-max-size", MindustryLoggerMod.fileSinkMaxSize)
+                .put("file-sink-rotation-hours", MindustryLoggerMod.fileSinkRotationHours)
+                .put("file-sink-compress", MindustryLoggerMod.fileSinkCompress)
+                .put("file-sink-max-archives", MindustryLoggerMod.fileSinkMaxArchives)
+                .put("binary-log-enabled", MindustryLoggerMod.binaryLogEnabled)
+                .put("binary-log-segment-size", MindustryLoggerMod.binaryLogSegmentSize)
+                .put("binary-log-max-segments", MindustryLoggerMod.binaryLogMaxSegments)
+                .put("recent-buffer-size", MindustryLoggerMod.recentBufferSize)
+                .put("recent-dump-on-error", MindustryLoggerMod.recentDumpOnError)
+                .put("stack-trace-max-depth", MindustryLoggerMod.stackTraceMaxDepth);
+        final Jval filters = Jval.newArray();
+        for (final String filter : MindustryLoggerMod.stackTraceFilters) {
+            filters.add(Jval.valueOf(filter));
+        }
+        object.put("stack-trace-filters", filters);
+        final Jval mdcKeys = Jval.newArray();
+        for (final String key : MindustryLoggerMod.mdcKeys) {
+            mdcKeys.add(Jval.valueOf(key));
+        }
+        object.put("mdc-keys", mdcKeys);
+        final Level captureLevel = MindustryLoggerMod.captureLevel;
+        if (captureLevel != null) {
+            object.put("capture-level", captureLevel.toString());
+        }
         final Jval levels = Jval.newObject();
         for (final Map.Entry<String, Level> entry : MindustryLoggerMod.levels.entrySet()) {
-            levels.put(entry.getKey(), entry.getValue().toString());
+            final String name = MindustryLoggerMod.levelNames.get(entry.getKey());
+            levels.put(name == null ? entry.getKey() : name, entry.getValue().toString());
         }
-        try (final Writer writer = configFile.writer(false)) {
-            object.put("log-levels", levels).writeTo(writer, Jval.Jformat.formatted);
-        } catch (final Exception e) {
-            Log.err("Failed to save settings to disk", e);
+        final Jval suppression = Jval.newObject();
+        for (final Map.Entry<String, SuppressionRule> entry : MindustryLoggerMod.suppressionRules.entrySet()) {
+            suppression.put(entry.getKey(), entry.getValue().toString());
         }
+        object.put("log-suppression", suppression);
+        final Jval markers = Jval.newObject();
+        for (final Map.Entry<String, MarkerRule> entry : MindustryLoggerMod.markerRules.entrySet()) {
+            markers.put(entry.getKey(), entry.getValue().toString());
+        }
+        object.put("marker-rules", markers);
+        final Jval sampling = Jval.newObject();
+        for (final Map.Entry<String, SamplingRule> entry : MindustryLoggerMod.samplingRules.entrySet()) {
+            sampling.put(entry.getKey(), entry.getValue().toString());
+        }
+        object.put("sampling-rules", sampling);
+        final Jval rateLimits = Jval.newObject();
+        for (final Map.Entry<String, RateLimitRule> entry : MindustryLoggerMod.rateLimitRules.entrySet()) {
+            rateLimits.put(entry.getKey(), entry.getValue().toString());
+        }
+        object.put("rate-limits", rateLimits);
+        final Jval modRateLimits = Jval.newObject();
+        for (final Map.Entry<String, RateLimitRule> entry : MindustryLoggerMod.modRateLimitRules.entrySet()) {
+            modRateLimits.put(entry.getKey(), entry.getValue().toString());
+        }
+        object.put("mod-rate-limits", modRateLimits);
+        final Jval fileRoutes = Jval.newObject();
+        for (final Map.Entry<String, Boolean> entry : MindustryLoggerMod.fileRoutes.entrySet()) {
+            fileRoutes.put(entry.getKey(), entry.getValue());
+        }
+        object.put("file-routes", fileRoutes);
+        final Jval fileModRoutes = Jval.newObject();
+        for (final Map.Entry<String, Boolean> entry : MindustryLoggerMod.fileModRoutes.entrySet()) {
+            fileModRoutes.put(entry.getKey(), entry.getValue());
+        }
+        object.put("file-mod-routes", fileModRoutes);
+        final Jval callerLocations = Jval.newObject();
+        for (final Map.Entry<String, Boolean> entry : MindustryLoggerMod.callerLocations.entrySet()) {
+            callerLocations.put(entry.getKey(), entry.getValue());
+        }
+        object.put("caller-locations", callerLocations);
+        return object.put("log-levels", levels);
     }
 
     private static void load() {
@@ -204,32 +939,399 @@ public final class MindustryLoggerMod extends Mod {
         if (traceEnabled != null && traceEnabled.isBoolean()) {
             MindustryLoggerMod.traceEnabled = traceEnabled.asBool();
         }
-        final Jval levels = object.get("log-levels");
-        if (levels != null && levels.isObject()) {
-            for (final ObjectMap.Entry<String, Jval> entry : levels.asObject()) {
-                if (!entry.value.isString()) {
-                    continue;
-                }
-                final Level level;
-                try {
-                    level = Level.valueOf(entry.value.asString().toUpperCase(Locale.ROOT));
-                } catch (final IllegalArgumentException e) {
-                    Log.warn("[SLF4MD]: Invalid log level @ for @ in settings file.", entry.value, entry.key);
-                    continue;
-                }
-                MindustryLoggerMod.levels.put(entry.key.toLowerCase(Locale.ROOT), level);
+        final Jval asyncEnabled = object.get("async-enabled");
+        if (asyncEnabled != null && asyncEnabled.isBoolean()) {
+            MindustryLoggerMod.asyncEnabled = asyncEnabled.asBool();
+        }
+        final Jval asyncBufferSize = object.get("async-buffer-size");
+        if (asyncBufferSize != null && asyncBufferSize.isNumber()) {
+            if (asyncBufferSize.asInt() > 0) {
+                MindustryLoggerMod.asyncBufferSize = asyncBufferSize.asInt();
+            } else {
+                Log.warn("[SLF4MD]: Invalid async buffer size @ in settings file.", asyncBufferSize);
             }
         }
-    }
-
-    @Override
-    public void registerServerCommands(final CommandHandler handler) {
-        handler.register("slf4md", "[subcommand] [arg1] [arg2]", "SLF4MD management commands.", args -> {
-            if (args.length == 0) {
-                Log.info(">>> SLF4MD >>> Available SubCommands >>>");
-                Log.info("> log-level <logger> [level|clear]");
-                Log.info("Change or clear the log level of a specified logger.");
-                Log.info("> log-level-list");
+        final Jval asyncOverflowPolicy = object.get("async-overflow-policy");
+        if (asyncOverflowPolicy != null && asyncOverflowPolicy.isString()) {
+            final AsyncOverflowPolicy policy = AsyncOverflowPolicy.fromConfigName(asyncOverflowPolicy.asString());
+            if (policy != null) {
+                MindustryLoggerMod.asyncOverflowPolicy = policy;
+            } else {
+                Log.warn("[SLF4MD]: Invalid async overflow policy @ in settings file.", asyncOverflowPolicy);
+            }
+        }
+        final Jval fileSinkEnabled = object.get("file-sink-enabled");
+        if (fileSinkEnabled != null && fileSinkEnabled.isBoolean()) {
+            MindustryLoggerMod.fileSinkEnabled = fileSinkEnabled.asBool();
+        }
+        final Jval fileSinkName = object.get("file-sink-name");
+        if (fileSinkName != null && fileSinkName.isString()) {
+            if (fileSinkName.asString().matches("[\\w.-]+")) {
+                MindustryLoggerMod.fileSinkName = fileSinkName.asString();
+            } else {
+                Log.warn("[SLF4MD]: Invalid file sink name @ in settings file.", fileSinkName);
+            }
+        }
+        final Jval fileSinkFormat = object.get("file-sink-format");
+        if (fileSinkFormat != null && fileSinkFormat.isString()) {
+            final FileSinkFormat format = FileSinkFormat.fromConfigName(fileSinkFormat.asString());
+            if (format != null) {
+                MindustryLoggerMod.fileSinkFormat = format;
+            } else {
+                Log.warn("[SLF4MD]: Invalid file sink format @ in settings file.", fileSinkFormat);
+            }
+        }
+        final Jval fileSinkBufferSize = object.get("file-sink-buffer-size");
+        if (fileSinkBufferSize != null && fileSinkBufferSize.isNumber()) {
+            if (fileSinkBufferSize.asInt() > 0) {
+                MindustryLoggerMod.fileSinkBufferSize = fileSinkBufferSize.asInt();
+            } else {
+                Log.warn("[SLF4MD]: Invalid file sink buffer size @ in settings file.", fileSinkBufferSize);
+            }
+        }
+        final Jval fileSinkQueueSize = object.get("file-sink-queue-size");
+        if (fileSinkQueueSize != null && fileSinkQueueSize.isNumber()) {
+            if (fileSinkQueueSize.asInt() > 0) {
+                MindustryLoggerMod.fileSinkQueueSize = fileSinkQueueSize.asInt();
+            } else {
+                Log.warn("[SLF4MD]: Invalid file sink queue size @ in settings file.", fileSinkQueueSize);
+            }
+        }
+        final Jval fileSinkMaxSize = object.get("file-sink-max-size");
+        if (fileSinkMaxSize != null && fileSinkMaxSize.isNumber()) {
+            if (fileSinkMaxSize.asLong() > 0L) {
+                MindustryLoggerMod.fileSinkMaxSize = fileSinkMaxSize.asLong();
+            } else {
+                Log.warn("[SLF4MD]: Invalid file sink max size @ in settings file.", fileSinkMaxSize);
+            }
+        }
+        final Jval fileSinkRotationHours = object.get("file-sink-rotation-hours");
+        if (fileSinkRotationHours != null && fileSinkRotationHours.isNumber()) {
+            MindustryLoggerMod.fileSinkRotationHours = Math.max(0, fileSinkRotationHours.asInt());
+        }
+        final Jval fileSinkCompress = object.get("file-sink-compress");
+        if (fileSinkCompress != null && fileSinkCompress.isBoolean()) {
+            MindustryLoggerMod.fileSinkCompress = fileSinkCompress.asBool();
+        }
+        final Jval fileSinkMaxArchives = object.get("file-sink-max-archives");
+        if (fileSinkMaxArchives != null && fileSinkMaxArchives.isNumber()) {
+            MindustryLoggerMod.fileSinkMaxArchives = Math.max(0, fileSinkMaxArchives.asInt());
+        }
+        final Jval binaryLogEnabled = object.get("binary-log-enabled");
+        if (binaryLogEnabled != null && binaryLogEnabled.isBoolean()) {
+            MindustryLoggerMod.binaryLogEnabled = binaryLogEnabled.asBool();
+        }
+        final Jval binaryLogSegmentSize = object.get("binary-log-segment-size");
+        if (binaryLogSegmentSize != null && binaryLogSegmentSize.isNumber()) {
+            if (binaryLogSegmentSize.asInt() >= 1024) {
+                MindustryLoggerMod.binaryLogSegmentSize = binaryLogSegmentSize.asInt();
+            } else {
+                Log.warn("[SLF4MD]: Invalid binary log segment size @ in settings file.", binaryLogSegmentSize);
+            }
+        }
+        final Jval binaryLogMaxSegments = object.get("binary-log-max-segments");
+        if (binaryLogMaxSegments != null && binaryLogMaxSegments.isNumber()) {
+            MindustryLoggerMod.binaryLogMaxSegments = Math.max(0, binaryLogMaxSegments.asInt());
+        }
+        final Jval captureLevel = object.get("capture-level");
+        if (captureLevel != null && captureLevel.isString()) {
+            try {
+                MindustryLoggerMod.captureLevel = Level.valueOf(captureLevel.asString().toUpperCase(Locale.ROOT));
+            } catch (final IllegalArgumentException e) {
+                Log.warn("[SLF4MD]: Invalid capture level @ in settings file.", captureLevel);
+            }
+        }
+        final Jval recentBufferSize = object.get("recent-buffer-size");
+        if (recentBufferSize != null && recentBufferSize.isNumber()) {
+            if (recentBufferSize.asInt() > 0 && recentBufferSize.asInt() <= 1 << 20) {
+                MindustryLoggerMod.recentBufferSize = recentBufferSize.asInt();
+            } else {
+                Log.warn("[SLF4MD]: Invalid recent buffer size @ in settings file.", recentBufferSize);
+            }
+        }
+        final Jval recentDumpOnError = object.get("recent-dump-on-error");
+        if (recentDumpOnError != null && recentDumpOnError.isBoolean()) {
+            MindustryLoggerMod.recentDumpOnError = recentDumpOnError.asBool();
+        }
+        MindustryLoggerMod.loadFileRoutes(object.get("file-routes"), MindustryLoggerMod.fileRoutes);
+        MindustryLoggerMod.fileRouteTree = LoggerTree.compile(MindustryLoggerMod.fileRoutes);
+        MindustryLoggerMod.loadFileRoutes(object.get("file-mod-routes"), MindustryLoggerMod.fileModRoutes);
+        final Jval callerLocations = object.get("caller-locations");
+        if (callerLocations != null && callerLocations.isObject()) {
+            for (final ObjectMap.Entry<String, Jval> entry : callerLocations.asObject()) {
+                if (!entry.value.isBoolean()) {
+                    Log.warn("[SLF4MD]: Invalid caller location @ for @ in settings file.", entry.value, entry.key);
+                    continue;
+                }
+                MindustryLoggerMod.callerLocations.put(entry.key.toLowerCase(Locale.ROOT), entry.value.asBool());
+            }
+            MindustryLoggerMod.callerLocationTree = LoggerTree.compile(MindustryLoggerMod.callerLocations);
+        }
+        final Jval stackTraceMaxDepth = object.get("stack-trace-max-depth");
+        if (stackTraceMaxDepth != null && stackTraceMaxDepth.isNumber()) {
+            MindustryLoggerMod.stackTraceMaxDepth = Math.max(0, stackTraceMaxDepth.asInt());
+        }
+        final Jval stackTraceFilters = object.get("stack-trace-filters");
+        if (stackTraceFilters != null && stackTraceFilters.isArray()) {
+            final List<String> filters = new ArrayList<>();
+            for (final Jval filter : stackTraceFilters.asArray()) {
+                if (filter.isString()) {
+                    filters.add(filter.asString());
+                }
+            }
+            MindustryLoggerMod.stackTraceFilters = filters.toArray(new String[0]);
+        }
+        final Jval mdcKeys = object.get("mdc-keys");
+        if (mdcKeys != null && mdcKeys.isArray()) {
+            final List<String> keys = new ArrayList<>();
+            for (final Jval key : mdcKeys.asArray()) {
+                if (key.isString()) {
+                    keys.add(key.asString());
+                }
+            }
+            MindustryLoggerMod.mdcKeys = keys.toArray(new String[0]);
+        }
+        final Jval levels = object.get("log-levels");
+        if (levels != null && levels.isObject()) {
+            MindustryLoggerMod.loadLevels(levels, MindustryLoggerMod.levels, MindustryLoggerMod.levelNames);
+            MindustryLoggerMod.levelTree = LoggerTree.compile(MindustryLoggerMod.levels);
+        }
+        final Jval suppression = object.get("log-suppression");
+        if (suppression != null && suppression.isObject()) {
+            for (final ObjectMap.Entry<String, Jval> entry : suppression.asObject()) {
+                final SuppressionRule rule =
+                        entry.value.isString() ? SuppressionRule.parse(entry.value.asString()) : null;
+                if (rule == null) {
+                    Log.warn("[SLF4MD]: Invalid suppression rule @ for @ in settings file.", entry.value, entry.key);
+                    continue;
+                }
+                MindustryLoggerMod.suppressionRules.put(entry.key.toLowerCase(Locale.ROOT), rule);
+            }
+            MindustryLoggerMod.suppressionTree = LoggerTree.compile(MindustryLoggerMod.suppressionRules);
+        }
+        final Jval markers = object.get("marker-rules");
+        if (markers != null && markers.isObject()) {
+            for (final ObjectMap.Entry<String, Jval> entry : markers.asObject()) {
+                final MarkerRule rule = entry.value.isString() ? MarkerRule.parse(entry.value.asString()) : null;
+                if (rule == null) {
+                    Log.warn("[SLF4MD]: Invalid marker rule @ for @ in settings file.", entry.value, entry.key);
+                    continue;
+                }
+                MindustryLoggerMod.markerRules.put(entry.key.toLowerCase(Locale.ROOT), rule);
+            }
+            MindustryLoggerMod.markerTree = LoggerTree.compile(MindustryLoggerMod.markerRules);
+        }
+        final Jval sampling = object.get("sampling-rules");
+        if (sampling != null && sampling.isObject()) {
+            for (final ObjectMap.Entry<String, Jval> entry : sampling.asObject()) {
+                final SamplingRule rule = entry.value.isString() ? SamplingRule.parse(entry.value.asString()) : null;
+                if (rule == null) {
+                    Log.warn("[SLF4MD]: Invalid sampling rule @ for @ in settings file.", entry.value, entry.key);
+                    continue;
+                }
+                MindustryLoggerMod.samplingRules.put(entry.key.toLowerCase(Locale.ROOT), rule);
+            }
+            MindustryLoggerMod.samplingTree = LoggerTree.compile(MindustryLoggerMod.samplingRules);
+        }
+        MindustryLoggerMod.loadRateLimitRules(object.get("rate-limits"), MindustryLoggerMod.rateLimitRules);
+        MindustryLoggerMod.rateLimitTree = LoggerTree.compile(MindustryLoggerMod.rateLimitRules);
+        MindustryLoggerMod.loadRateLimitRules(object.get("mod-rate-limits"), MindustryLoggerMod.modRateLimitRules);
+    }
+
+    private static void loadLevels(
+            final Jval object, final Map<String, Level> levels, final Map<String, String> names) {
+        for (final ObjectMap.Entry<String, Jval> entry : object.asObject()) {
+            if (!entry.value.isString()) {
+                continue;
+            }
+            final Level level;
+            try {
+                level = Level.valueOf(entry.value.asString().toUpperCase(Locale.ROOT));
+            } catch (final IllegalArgumentException e) {
+                Log.warn("[SLF4MD]: Invalid log level @ for @ in settings file.", entry.value, entry.key);
+                continue;
+            }
+            final String name = entry.key.toLowerCase(Locale.ROOT);
+            levels.put(name, level);
+            names.put(name, entry.key);
+        }
+    }
+
+    /**
+     * Schedules a reload of the log levels after an external edit of the settings file, editors often write a
+     * file in several steps so the events within the debounce window are handled at once.
+     */
+    private static void scheduleReload() {
+        if (MindustryLoggerMod.pendingReloads.getAndIncrement() == 0) {
+            MindustryLoggerMod.getScheduler()
+                    .schedule(MindustryLoggerMod::reloadLevels, RELOAD_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Applies the log levels of the settings file to the live loggers, only the changed levels are touched.
+     * The other settings are applied on restart, the saves made in the meantime keep their edited values.
+     */
+    private static synchronized void reloadLevels() {
+        if (MindustryLoggerMod.pendingReloads.getAndSet(0) == 0) {
+            return;
+        }
+        final Path file = MindustryLoggerMod.getConfigPath();
+        final String config;
+        try {
+            if (!Files.exists(file)) {
+                return;
+            }
+            config = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            Log.err("[SLF4MD] Failed to read SLF4MD settings", e);
+            return;
+        }
+        // Our own saves trigger the watcher too
+        if (config.equals(MindustryLoggerMod.savedConfig)) {
+            return;
+        }
+        final Map<String, Level> levels = new HashMap<>();
+        final Map<String, String> names = new HashMap<>();
+        try {
+            final Jval object = Jval.read(config);
+            final Jval entries = object.get("log-levels");
+            if (entries != null && entries.isObject()) {
+                MindustryLoggerMod.loadLevels(entries, levels, names);
+            }
+        } catch (final Exception e) {
+            // Likely a partial write, the next modification event will retry
+            Log.warn("[SLF4MD]: Ignored unreadable settings file: @", e.getMessage());
+            return;
+        }
+        if (levels.equals(MindustryLoggerMod.levels) && names.equals(MindustryLoggerMod.levelNames)) {
+            return;
+        }
+        MindustryLoggerMod.levels.keySet().retainAll(levels.keySet());
+        MindustryLoggerMod.levelNames.keySet().retainAll(names.keySet());
+        MindustryLoggerMod.levels.putAll(levels);
+        MindustryLoggerMod.levelNames.putAll(names);
+        MindustryLoggerMod.levelTree = LoggerTree.compile(MindustryLoggerMod.levels);
+        MindustryLoggerMod.invalidateLevelRules();
+        Log.info("[SLF4MD]: Reloaded @ log level(s) from the settings file.", levels.size());
+    }
+
+    private static void startConfigWatcher() {
+        try {
+            MindustryLoggerMod.configWatcher =
+                    ConfigWatcher.start(MindustryLoggerMod.getConfigPath(), MindustryLoggerMod::scheduleReload);
+        } catch (final Exception | NoClassDefFoundError e) {
+            // Unsupported on some platforms, the settings still work without it
+            Log.warn("[SLF4MD]: Cannot watch the settings file for changes: @", e.toString());
+        }
+    }
+
+    private static void loadRateLimitRules(final @Nullable Jval object, final Map<String, RateLimitRule> rules) {
+        if (object == null || !object.isObject()) {
+            return;
+        }
+        for (final ObjectMap.Entry<String, Jval> entry : object.asObject()) {
+            final RateLimitRule rule = entry.value.isString() ? RateLimitRule.parse(entry.value.asString()) : null;
+            if (rule == null) {
+                Log.warn("[SLF4MD]: Invalid rate limit @ for @ in settings file.", entry.value, entry.key);
+                continue;
+            }
+            rules.put(entry.key.toLowerCase(Locale.ROOT), rule);
+        }
+    }
+
+    private static void loadFileRoutes(final @Nullable Jval object, final Map<String, Boolean> routes) {
+        if (object == null || !object.isObject()) {
+            return;
+        }
+        for (final ObjectMap.Entry<String, Jval> entry : object.asObject()) {
+            if (!entry.value.isBoolean()) {
+                Log.warn("[SLF4MD]: Invalid file route @ for @ in settings file.", entry.value, entry.key);
+                continue;
+            }
+            routes.put(entry.key.toLowerCase(Locale.ROOT), entry.value.asBool());
+        }
+    }
+
+    @Override
+    public void init() {
+        Core.app.addListener(new ApplicationListener() {
+            @Override
+            public void dispose() {
+                // Drain the asynchronous events first, they may still be written to the file
+                MindustryLoggerMod.stopAsyncDispatcher();
+                MindustryLoggerMod.stopFileSink();
+                MindustryLoggerMod.stopBinaryLog();
+                final ConfigWatcher watcher = MindustryLoggerMod.configWatcher;
+                if (watcher != null) {
+                    watcher.close();
+                }
+                // The scheduler is a daemon, write the pending changes before it dies with the game
+                MindustryLoggerMod.flushSave();
+            }
+        });
+        // Posted so the report runs once every mod has been initialized
+        Core.app.post(MindustryLoggerMod::reportStartup);
+    }
+
+    private static void reportStartup() {
+        final ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof MindustryLoggerFactory)) {
+            return;
+        }
+        final MindustryLoggerFactory mindustry = (MindustryLoggerFactory) factory;
+        final Logger logger = mindustry.getLogger(MindustryLoggerMod.class.getName());
+        logger.info(
+                "Resolved {} loggers in {} ms during startup",
+                mindustry.getResolvedLoggerCount(),
+                MindustryLoggerMod.toMillis(mindustry.getResolveNanos()));
+        logger.debug(
+                "Loaded settings in {} ms, redirected java logging in {} ms",
+                MindustryLoggerMod.toMillis(MindustryLoggerMod.settingsLoadNanos),
+                MindustryLoggerMod.toMillis(MindustryLoggerMod.bridgeInstallNanos));
+    }
+
+    private static void reportLatency(final String name, final LatencyHistogram histogram) {
+        final long count = histogram.getCount();
+        Log.info(
+                "@: @ calls, mean @ us, p50 < @ us, p99 < @ us, p99.9 < @ us.",
+                name,
+                count,
+                MindustryLoggerMod.toMicros(count == 0L ? 0L : histogram.getTotalNanos() / count),
+                MindustryLoggerMod.toMicros(histogram.getPercentileNanos(50D)),
+                MindustryLoggerMod.toMicros(histogram.getPercentileNanos(99D)),
+                MindustryLoggerMod.toMicros(histogram.getPercentileNanos(99.9D)));
+    }
+
+    private static void reportStats(final LoggerStats.Snapshot stats) {
+        final String mod = stats.getMod();
+        Log.info(
+                "> @@: @ emitted, @ suppressed, @ rate limited, @ sampled out, @ characters",
+                stats.getName(),
+                mod == null || mod.equals(stats.getName()) ? "" : " (" + mod + ")",
+                stats.getEmitted(),
+                stats.getSuppressed(),
+                stats.getDropped(),
+                stats.getSampled(),
+                stats.getFormattedChars());
+    }
+
+    private static String toMicros(final long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000D);
+    }
+
+    private static String toMillis(final long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000D);
+    }
+
+    @Override
+    public void registerServerCommands(final CommandHandler handler) {
+        handler.register("slf4md", "[subcommand] [arg1] [arg2] [arg3]", "SLF4MD management commands.", args -> {
+            if (args.length == 0) {
+                Log.info(">>> SLF4MD >>> Available SubCommands >>>");
+                Log.info("> log-level <logger> [level|clear]");
+                Log.info("Change or clear the log level of a specified logger or package.");
+                Log.info("> log-level-list");
                 Log.info("List the log levels you have explicitly set.");
                 Log.info("> enable-trace [true|false]");
                 Log.info("Toggle trace logging when debug is active.");
@@ -237,6 +1339,56 @@ public final class MindustryLoggerMod extends Mod {
                 Log.info("Toggle mod name display in log statements.");
                 Log.info("> show-class-name [true|false]");
                 Log.info("Toggle class name display in log statements.");
+                Log.info("> async [true|false]");
+                Log.info("Toggle asynchronous logging or show its queue depth and dropped events.");
+                Log.info("> async-policy [block|drop-below-warn|drop-oldest]");
+                Log.info("Change what asynchronous logging does when its buffer is full.");
+                Log.info("> file-sink [true|false]");
+                Log.info("Toggle writing log statements to a rotated file or show its size and dropped lines.");
+                Log.info("> file-sink-format [text|json-lines]");
+                Log.info("Change whether the log file holds plain lines or one JSON object per event.");
+                Log.info("> binary-log [true|false]");
+                Log.info("Toggle writing log statements to compact binary segments or show the current segment.");
+                Log.info("> file-route <logger> [true|false|clear]");
+                Log.info("Include or exclude a logger or package from the log file and binary log.");
+                Log.info("> file-route-mod <mod> [true|false|clear]");
+                Log.info("Include or exclude all the loggers of a mod from the log file and binary log.");
+                Log.info("> caller-location <logger> [true|false|clear]");
+                Log.info("Toggle rendering the class, method and line of the log calls of a logger or package.");
+                Log.info("> stack-trace-depth [frames]");
+                Log.info("Change the maximum number of frames printed per exception, 0 for unlimited.");
+                Log.info("> stack-trace-filter [add|remove] [package]");
+                Log.info("List, add or remove packages whose frames are collapsed in stack traces.");
+                Log.info("> suppress <logger> [limit/seconds|clear]");
+                Log.info("Only let through a number of similar messages of a logger or package per time window.");
+                Log.info("> suppress-list");
+                Log.info("List the suppression rules you have explicitly set.");
+                Log.info("> marker <logger> [+ALLOWED,-DENIED|clear]");
+                Log.info("Let through or drop the events of a logger or package carrying the given markers.");
+                Log.info("> marker-list");
+                Log.info("List the marker rules you have explicitly set.");
+                Log.info("> sample <logger> [level] [1/100|0.5%|clear]");
+                Log.info("Only let through a share of the events of a logger or package at or below a level.");
+                Log.info("> sample-list");
+                Log.info("List the sampling rules you have explicitly set.");
+                Log.info("> rate-limit <logger> [rate/burst|clear]");
+                Log.info("Cap the events per second of a logger or whole package, WARN and ERROR count apart.");
+                Log.info("> rate-limit-mod <mod> [rate/burst|clear]");
+                Log.info("Cap the events per second of all the loggers of a mod.");
+                Log.info("> rate-limit-list");
+                Log.info("List the rate limits you have set and how many events they dropped.");
+                Log.info("> capture-level [level|none]");
+                Log.info("Record the recent events at or above a level in memory, whatever the logger levels.");
+                Log.info("> recent [count] [logger|*] [level]");
+                Log.info("Show the most recent recorded events, optionally of some loggers and at or above a level.");
+                Log.info("> dump <file>");
+                Log.info("Write the recorded events to a file in the slf4md/dumps directory.");
+                Log.info("> dump-on-error [true|false]");
+                Log.info("Toggle dumping the recorded events automatically when an error is logged.");
+                Log.info("> stats [count|reset]");
+                Log.info("Show the logging counters, latencies and the noisiest loggers and mods, or reset them.");
+                Log.info("> mdc-keys [key1,key2,...|clear]");
+                Log.info("Change the MDC keys rendered in log statements.");
                 return;
             }
 
@@ -246,7 +1398,15 @@ public final class MindustryLoggerMod extends Mod {
                         Log.err("Usage: log-level <logger> [level|clear]");
                     } else if (args.length == 2) {
                         final Level level = MindustryLoggerMod.getLoggerLevel(args[1]);
-                        if (level == null) {
+                        final String rule =
+                                MindustryLoggerMod.levelTree.resolveRule(args[1].toLowerCase(Locale.ROOT));
+                        if (level == null && rule != null) {
+                            Log.info(
+                                    "Logger @ has no explicit level set (inherits @ from @).",
+                                    args[1],
+                                    MindustryLoggerMod.levelTree.resolve(rule),
+                                    rule);
+                        } else if (level == null) {
                             Log.info("Logger @ has no explicit level set (inherits from root).", args[1]);
                         } else {
                             Log.info("Logger @ has level @.", args[1], level);
@@ -282,7 +1442,8 @@ public final class MindustryLoggerMod extends Mod {
                     } else {
                         Log.info(">>> SLF4MD >>> Custom Log Levels >>>");
                         for (final Map.Entry<String, Level> entry : MindustryLoggerMod.levels.entrySet()) {
-                            Log.info("@ -> @", entry.getKey(), entry.getValue());
+                            final String name = MindustryLoggerMod.levelNames.get(entry.getKey());
+                            Log.info("@ -> @", name == null ? entry.getKey() : name, entry.getValue());
                         }
                     }
                     break;
@@ -338,10 +1499,646 @@ public final class MindustryLoggerMod extends Mod {
                     }
                     break;
 
+                case "async":
+                    if (args.length == 1) {
+                        final AsyncLogDispatcher dispatcher = MindustryLoggerMod.getAsyncDispatcher();
+                        if (dispatcher == null) {
+                            Log.info("Asynchronous logging is currently disabled.");
+                        } else {
+                            Log.info(
+                                    "Asynchronous logging is currently enabled, @/@ events queued, @ dropped.",
+                                    dispatcher.getQueueDepth(),
+                                    dispatcher.getCapacity(),
+                                    dispatcher.getDropped());
+                        }
+                    } else {
+                        final String stringValue = args[1].toLowerCase(Locale.ROOT);
+                        if (!stringValue.equals("true") && !stringValue.equals("false")) {
+                            Log.err("Usage: async [true|false]");
+                            return;
+                        }
+                        final boolean value = Boolean.parseBoolean(stringValue);
+                        MindustryLoggerMod.setAsyncEnabled(value);
+                        Log.info("Asynchronous logging is now @.", value ? "enabled" : "disabled");
+                    }
+                    break;
+
+                case "async-policy":
+                    if (args.length == 1) {
+                        Log.info(
+                                "Asynchronous overflow policy is currently @.",
+                                MindustryLoggerMod.getAsyncOverflowPolicy().getConfigName());
+                    } else {
+                        final AsyncOverflowPolicy policy = AsyncOverflowPolicy.fromConfigName(args[1]);
+                        if (policy == null) {
+                            Log.err("Usage: async-policy [block|drop-below-warn|drop-oldest]");
+                            return;
+                        }
+                        MindustryLoggerMod.setAsyncOverflowPolicy(policy);
+                        Log.info("Asynchronous overflow policy is now @.", policy.getConfigName());
+                    }
+                    break;
+
+                case "file-sink":
+                    if (args.length == 1) {
+                        final FileSink sink = MindustryLoggerMod.getFileSink();
+                        if (sink == null) {
+                            Log.info("The file sink is currently disabled.");
+                        } else {
+                            Log.info(
+                                    "The file sink is currently writing to @, @ bytes written, @ lines dropped.",
+                                    sink.getFile(),
+                                    sink.getFileSize(),
+                                    sink.getDropped());
+                        }
+                    } else {
+                        final String stringValue = args[1].toLowerCase(Locale.ROOT);
+                        if (!stringValue.equals("true") && !stringValue.equals("false")) {
+                            Log.err("Usage: file-sink [true|false]");
+                            return;
+                        }
+                        final boolean value = Boolean.parseBoolean(stringValue);
+                        MindustryLoggerMod.setFileSinkEnabled(value);
+                        Log.info("The file sink is now @.", value ? "enabled" : "disabled");
+                    }
+                    break;
+
+                case "file-sink-format":
+                    if (args.length == 1) {
+                        Log.info(
+                                "The file sink format is currently @.",
+                                MindustryLoggerMod.getFileSinkFormat().getConfigName());
+                    } else {
+                        final FileSinkFormat format = FileSinkFormat.fromConfigName(args[1]);
+                        if (format == null) {
+                            Log.err("Usage: file-sink-format [text|json-lines]");
+                            return;
+                        }
+                        MindustryLoggerMod.setFileSinkFormat(format);
+                        Log.info("The file sink format is now @.", format.getConfigName());
+                    }
+                    break;
+
+                case "binary-log":
+                    if (args.length == 1) {
+                        final BinaryEventLog log = MindustryLoggerMod.getBinaryLog();
+                        if (log == null) {
+                            Log.info("The binary log is currently disabled.");
+                        } else {
+                            Log.info(
+                                    "The binary log is currently writing to @ at offset @, @ events dropped.",
+                                    log.getSegmentFile(),
+                                    log.getSegmentPosition(),
+                                    log.getDropped());
+                        }
+                    } else {
+                        final String stringValue = args[1].toLowerCase(Locale.ROOT);
+                        if (!stringValue.equals("true") && !stringValue.equals("false")) {
+                            Log.err("Usage: binary-log [true|false]");
+                            return;
+                        }
+                        final boolean value = Boolean.parseBoolean(stringValue);
+                        MindustryLoggerMod.setBinaryLogEnabled(value);
+                        Log.info("The binary log is now @.", value ? "enabled" : "disabled");
+                    }
+                    break;
+
+                case "file-route":
+                case "file-route-mod": {
+                    final boolean mod = args[0].equals("file-route-mod");
+                    final Map<String, Boolean> routes =
+                            mod ? MindustryLoggerMod.fileModRoutes : MindustryLoggerMod.fileRoutes;
+                    if (args.length == 1) {
+                        Log.err("Usage: @ <@> [true|false|clear]", args[0], mod ? "mod" : "logger");
+                    } else if (args.length == 2) {
+                        final Boolean route = routes.get(args[1].toLowerCase(Locale.ROOT));
+                        if (route == null) {
+                            Log.info("@ has no explicit file route set.", args[1]);
+                        } else {
+                            Log.info("@ is @ from the log file.", args[1], route ? "included" : "excluded");
+                        }
+                    } else {
+                        final String stringValue = args[2].toLowerCase(Locale.ROOT);
+                        final Boolean route;
+                        if (stringValue.equals("clear")) {
+                            route = null;
+                        } else if (stringValue.equals("true") || stringValue.equals("false")) {
+                            route = Boolean.parseBoolean(stringValue);
+                        } else {
+                            Log.err("Usage: @ <@> [true|false|clear]", args[0], mod ? "mod" : "logger");
+                            return;
+                        }
+                        if (mod) {
+                            MindustryLoggerMod.setFileModRoute(args[1], route);
+                        } else {
+                            MindustryLoggerMod.setFileRoute(args[1], route);
+                        }
+                        if (route == null) {
+                            Log.info("@ now has no explicit file route set.", args[1]);
+                        } else {
+                            Log.info("@ is now @ from the log file.", args[1], route ? "included" : "excluded");
+                        }
+                    }
+                    break;
+                }
+
+                case "caller-location":
+                    if (args.length == 1) {
+                        Log.err("Usage: caller-location <logger> [true|false|clear]");
+                    } else if (args.length == 2) {
+                        final Boolean enabled =
+                                MindustryLoggerMod.callerLocations.get(args[1].toLowerCase(Locale.ROOT));
+                        if (enabled == null) {
+                            Log.info(
+                                    "Logger @ has no explicit caller location setting (currently @).",
+                                    args[1],
+                                    MindustryLoggerMod.isCallerLocationEnabled(args[1]) ? "enabled" : "disabled");
+                        } else {
+                            Log.info("Caller locations of @ are @.", args[1], enabled ? "enabled" : "disabled");
+                        }
+                    } else {
+                        final String stringValue = args[2].toLowerCase(Locale.ROOT);
+                        final Boolean enabled;
+                        if (stringValue.equals("clear")) {
+                            enabled = null;
+                        } else if (stringValue.equals("true") || stringValue.equals("false")) {
+                            enabled = Boolean.parseBoolean(stringValue);
+                        } else {
+                            Log.err("Usage: caller-location <logger> [true|false|clear]");
+                            return;
+                        }
+                        MindustryLoggerMod.setCallerLocation(args[1], enabled);
+                        if (enabled == null) {
+                            Log.info("Logger @ now has no explicit caller location setting.", args[1]);
+                        } else {
+                            Log.info("Caller locations of @ are now @.", args[1], enabled ? "enabled" : "disabled");
+                        }
+                    }
+                    break;
+
+                case "stack-trace-depth":
+                    if (args.length == 1) {
+                        final int depth = MindustryLoggerMod.getStackTraceMaxDepth();
+                        Log.info(
+                                "Stack trace depth is currently @.",
+                                depth == 0 ? "unlimited" : depth + " frames");
+                    } else {
+                        final int depth;
+                        try {
+                            depth = Integer.parseInt(args[1]);
+                        } catch (final NumberFormatException e) {
+                            Log.err("Usage: stack-trace-depth [frames]");
+                            return;
+                        }
+                        if (depth < 0) {
+                            Log.err("The stack trace depth can't be negative.");
+                            return;
+                        }
+                        MindustryLoggerMod.setStackTraceMaxDepth(depth);
+                        Log.info("Stack trace depth is now @.", depth == 0 ? "unlimited" : depth + " frames");
+                    }
+                    break;
+
+                case "stack-trace-filter":
+                    if (args.length == 1) {
+                        final String[] filters = MindustryLoggerMod.getStackTraceFilters();
+                        if (filters.length == 0) {
+                            Log.info("No stack trace filters have been set.");
+                        } else {
+                            Log.info(">>> SLF4MD >>> Stack Trace Filters >>>");
+                            for (final String filter : filters) {
+                                Log.info("- @", filter);
+                            }
+                        }
+                    } else if (args.length == 3 && args[1].equalsIgnoreCase("add")) {
+                        if (MindustryLoggerMod.addStackTraceFilter(args[2])) {
+                            Log.info("Frames from @ are now filtered.", args[2]);
+                        } else {
+                            Log.err("Frames from @ are already filtered.", args[2]);
+                        }
+                    } else if (args.length == 3 && args[1].equalsIgnoreCase("remove")) {
+                        if (MindustryLoggerMod.removeStackTraceFilter(args[2])) {
+                            Log.info("Frames from @ are no longer filtered.", args[2]);
+                        } else {
+                            Log.err("Frames from @ are not filtered.", args[2]);
+                        }
+                    } else {
+                        Log.err("Usage: stack-trace-filter [add|remove] [package]");
+                    }
+                    break;
+
+                case "suppress":
+                    if (args.length == 1) {
+                        Log.err("Usage: suppress <logger> [limit/seconds|clear]");
+                    } else if (args.length == 2) {
+                        final SuppressionRule rule = MindustryLoggerMod.getExplicitSuppressionRule(args[1]);
+                        if (rule == null) {
+                            Log.info("Logger @ has no explicit suppression rule set.", args[1]);
+                        } else {
+                            Log.info(
+                                    "Logger @ lets through @ similar messages per @ seconds.",
+                                    args[1],
+                                    rule.getLimit(),
+                                    rule.getWindowMillis() / 1000L);
+                        }
+                    } else if (args[2].equalsIgnoreCase("clear")) {
+                        MindustryLoggerMod.setSuppressionRule(args[1], null);
+                        Log.info("Logger @ now has no explicit suppression rule set.", args[1]);
+                    } else {
+                        final SuppressionRule rule = SuppressionRule.parse(args[2]);
+                        if (rule == null) {
+                            Log.err(
+                                    "Invalid suppression rule @, expected limit/seconds such as 5/10 or 'clear'.",
+                                    args[2]);
+                            return;
+                        }
+                        MindustryLoggerMod.setSuppressionRule(args[1], rule);
+                        Log.info("Set suppression rule of @ to @.", args[1], rule);
+                    }
+                    break;
+
+                case "suppress-list":
+                    if (MindustryLoggerMod.suppressionRules.isEmpty()) {
+                        Log.info("No suppression rules have been set.");
+                    } else {
+                        Log.info(">>> SLF4MD >>> Suppression Rules >>>");
+                        for (final Map.Entry<String, SuppressionRule> entry :
+                                MindustryLoggerMod.suppressionRules.entrySet()) {
+                            Log.info("@ -> @", entry.getKey(), entry.getValue());
+                        }
+                    }
+                    break;
+
+                case "marker":
+                    if (args.length == 1) {
+                        Log.err("Usage: marker <logger> [+ALLOWED,-DENIED|clear]");
+                    } else if (args.length == 2) {
+                        final MarkerRule rule = MindustryLoggerMod.markerRules.get(args[1].toLowerCase(Locale.ROOT));
+                        if (rule == null) {
+                            Log.info("Logger @ has no explicit marker rule set.", args[1]);
+                        } else {
+                            Log.info("Logger @ has the marker rule @.", args[1], rule);
+                        }
+                    } else if (args[2].equalsIgnoreCase("clear")) {
+                        MindustryLoggerMod.setMarkerRule(args[1], null);
+                        Log.info("Logger @ now has no explicit marker rule set.", args[1]);
+                    } else {
+                        final MarkerRule rule = MarkerRule.parse(args[2]);
+                        if (rule == null) {
+                            Log.err(
+                                    "Invalid marker rule @, expected markers such as +AUDIT,-PERF or 'clear'.",
+                                    args[2]);
+                            return;
+                        }
+                        MindustryLoggerMod.setMarkerRule(args[1], rule);
+                        Log.info("Set marker rule of @ to @.", args[1], rule);
+                    }
+                    break;
+
+                case "marker-list":
+                    if (MindustryLoggerMod.markerRules.isEmpty()) {
+                        Log.info("No marker rules have been set.");
+                    } else {
+                        Log.info(">>> SLF4MD >>> Marker Rules >>>");
+                        for (final Map.Entry<String, MarkerRule> entry : MindustryLoggerMod.markerRules.entrySet()) {
+                            Log.info("@ -> @", entry.getKey(), entry.getValue());
+                        }
+                    }
+                    break;
+
+                case "sample":
+                    if (args.length == 1) {
+                        Log.err("Usage: sample <logger> [level] [1/100|0.5%|clear]");
+                    } else if (args.length == 2) {
+                        final SamplingRule rule =
+                                MindustryLoggerMod.samplingRules.get(args[1].toLowerCase(Locale.ROOT));
+                        if (rule == null) {
+                            Log.info("Logger @ has no explicit sampling rule set.", args[1]);
+                        } else {
+                            Log.info("Logger @ is sampled at @.", args[1], rule);
+                        }
+                    } else if (args.length == 3) {
+                        if (!args[2].equalsIgnoreCase("clear")) {
+                            Log.err("Usage: sample <logger> [level] [1/100|0.5%|clear]");
+                            return;
+                        }
+                        MindustryLoggerMod.setSamplingRule(args[1], null);
+                        Log.info("Logger @ now has no explicit sampling rule set.", args[1]);
+                    } else {
+                        final Level level = SamplingRule.parseLevel(args[2]);
+                        if (level == null) {
+                            Log.err("Invalid log level @.", args[2]);
+                            return;
+                        }
+                        String rate = null;
+                        if (!args[3].equalsIgnoreCase("clear")) {
+                            rate = SamplingRule.normalizeRate(args[3]);
+                            if (rate == null) {
+                                Log.err(
+                                        "Invalid sampling rate @, expected a fraction such as 1/100, a percentage "
+                                                + "such as 0.5% or 'clear'.",
+                                        args[3]);
+                                return;
+                            }
+                        }
+                        // Each level of a logger is set on its own, the other entries of its rule are kept
+                        final SamplingRule current =
+                                MindustryLoggerMod.samplingRules.get(args[1].toLowerCase(Locale.ROOT));
+                        final SamplingRule rule;
+                        if (current != null) {
+                            rule = current.with(level, rate);
+                        } else {
+                            rule = rate == null ? null : SamplingRule.of(level, rate);
+                        }
+                        MindustryLoggerMod.setSamplingRule(args[1], rule);
+                        if (rule == null) {
+                            Log.info("Logger @ now has no explicit sampling rule set.", args[1]);
+                        } else {
+                            Log.info("Set sampling rule of @ to @.", args[1], rule);
+                        }
+                    }
+                    break;
+
+                case "sample-list":
+                    if (MindustryLoggerMod.samplingRules.isEmpty()) {
+                        Log.info("No sampling rules have been set.");
+                    } else {
+                        Log.info(">>> SLF4MD >>> Sampling Rules >>>");
+                        for (final Map.Entry<String, SamplingRule> entry :
+                                MindustryLoggerMod.samplingRules.entrySet()) {
+                            Log.info("@ -> @", entry.getKey(), entry.getValue());
+                        }
+                    }
+                    break;
+
+                case "rate-limit":
+                case "rate-limit-mod": {
+                    final boolean mod = args[0].equals("rate-limit-mod");
+                    final Map<String, RateLimitRule> rules =
+                            mod ? MindustryLoggerMod.modRateLimitRules : MindustryLoggerMod.rateLimitRules;
+                    if (args.length == 1) {
+                        Log.err("Usage: @ <@> [rate/burst|clear]", args[0], mod ? "mod" : "logger");
+                    } else if (args.length == 2) {
+                        final RateLimitRule rule = rules.get(args[1].toLowerCase(Locale.ROOT));
+                        if (rule == null) {
+                            Log.info("@ has no explicit rate limit set.", args[1]);
+                        } else {
+                            Log.info(
+                                    "@ is limited to @ events per second with bursts of @.",
+                                    args[1],
+                                    rule.getRate(),
+                                    rule.getBurst());
+                        }
+                    } else {
+                        RateLimitRule rule = null;
+                        if (!args[2].equalsIgnoreCase("clear")) {
+                            rule = RateLimitRule.parse(args[2]);
+                            if (rule == null) {
+                                Log.err(
+                                        "Invalid rate limit @, expected rate/burst such as 50/100 or 'clear'.",
+                                        args[2]);
+                                return;
+                            }
+                        }
+                        if (mod) {
+                            MindustryLoggerMod.setModRateLimitRule(args[1], rule);
+                        } else {
+                            MindustryLoggerMod.setRateLimitRule(args[1], rule);
+                        }
+                        if (rule == null) {
+                            Log.info("@ now has no explicit rate limit set.", args[1]);
+                        } else {
+                            Log.info("Set rate limit of @ to @.", args[1], rule);
+                        }
+                    }
+                    break;
+                }
+
+                case "rate-limit-list":
+                    if (MindustryLoggerMod.rateLimitRules.isEmpty()
+                            && MindustryLoggerMod.modRateLimitRules.isEmpty()) {
+                        Log.info("No rate limits have been set.");
+                    } else {
+                        Log.info(">>> SLF4MD >>> Rate Limits >>>");
+                        for (final Map.Entry<String, RateLimitRule> entry :
+                                MindustryLoggerMod.rateLimitRules.entrySet()) {
+                            Log.info("logger @ -> @", entry.getKey(), entry.getValue());
+                        }
+                        for (final Map.Entry<String, RateLimitRule> entry :
+                                MindustryLoggerMod.modRateLimitRules.entrySet()) {
+                            Log.info("mod @ -> @", entry.getKey(), entry.getValue());
+                        }
+                        Log.info(">>> SLF4MD >>> Dropped Events >>>");
+                        for (final Map.Entry<String, RateLimiter> entry :
+                                MindustryLoggerMod.rateLimiters.entrySet()) {
+                            Log.info("logger @ -> @", entry.getKey(), entry.getValue().getDropped());
+                        }
+                        for (final Map.Entry<String, RateLimiter> entry :
+                                MindustryLoggerMod.modRateLimiters.entrySet()) {
+                            Log.info("mod @ -> @", entry.getKey(), entry.getValue().getDropped());
+                        }
+                    }
+                    break;
+
+                case "capture-level":
+                    if (args.length == 1) {
+                        final Level level = MindustryLoggerMod.getCaptureLevel();
+                        if (level == null) {
+                            Log.info("Recent events are currently not recorded.");
+                        } else {
+                            Log.info("Recent events are currently recorded at @ and above.", level);
+                        }
+                    } else if (args[1].equalsIgnoreCase("none")) {
+                        MindustryLoggerMod.setCaptureLevel(null);
+                        Log.info("Recent events are no longer recorded.");
+                    } else {
+                        final Level level;
+                        try {
+                            level = Level.valueOf(args[1].toUpperCase(Locale.ROOT));
+                        } catch (final IllegalArgumentException e) {
+                            Log.err(
+                                    "Invalid capture level @, accepted values are @ or 'none'.",
+                                    args[1],
+                                    Arrays.toString(Level.values()));
+                            return;
+                        }
+                        MindustryLoggerMod.setCaptureLevel(level);
+                        Log.info("Recent events are now recorded at @ and above.", level);
+                    }
+                    break;
+
+                case "recent": {
+                    final RecentEvents events = MindustryLoggerMod.getRecentEvents();
+                    if (events == null) {
+                        Log.err("Recent events are not recorded, enable them with 'slf4md capture-level <level>'.");
+                        return;
+                    }
+                    int count = 20;
+                    if (args.length > 1) {
+                        try {
+                            count = Integer.parseInt(args[1]);
+                        } catch (final NumberFormatException e) {
+                            count = -1;
+                        }
+                        if (count <= 0) {
+                            Log.err("Invalid count @, expected a positive integer.", args[1]);
+                            return;
+                        }
+                    }
+                    final String filter = args.length > 2 && !args[2].equals("*") ? args[2] : null;
+                    Level level = null;
+                    if (args.length > 3) {
+                        try {
+                            level = Level.valueOf(args[3].toUpperCase(Locale.ROOT));
+                        } catch (final IllegalArgumentException e) {
+                            Log.err(
+                                    "Invalid log level @, accepted values are @.",
+                                    args[3],
+                                    Arrays.toString(Level.values()));
+                            return;
+                        }
+                    }
+                    final List<String> lines = events.query(count, filter, level);
+                    if (lines.isEmpty()) {
+                        Log.info("No matching recent events.");
+                    } else {
+                        Log.info(">>> SLF4MD >>> Recent Events >>>");
+                        for (final String line : lines) {
+                            Log.info(line);
+                        }
+                    }
+                    break;
+                }
+
+                case "dump": {
+                    final RecentEvents events = MindustryLoggerMod.getRecentEvents();
+                    if (events == null) {
+                        Log.err("Recent events are not recorded, enable them with 'slf4md capture-level <level>'.");
+                        return;
+                    }
+                    if (args.length == 1) {
+                        Log.err("Usage: dump <file>");
+                        return;
+                    }
+                    final Path directory = events.getDumpDirectory();
+                    final Path file = directory.resolve(args[1]).normalize();
+                    if (!file.startsWith(directory)) {
+                        Log.err("The dump file must be in @.", directory);
+                        return;
+                    }
+                    try {
+                        Log.info("Dumped @ recent events to @.", events.dump(file), file);
+                    } catch (final IOException e) {
+                        Log.err("Failed to dump the recent events to @: @", file, e.toString());
+                    }
+                    break;
+                }
+
+                case "dump-on-error":
+                    if (args.length == 1) {
+                        Log.info(
+                                "Dumping recent events on error is currently @.",
+                                MindustryLoggerMod.isRecentDumpOnError() ? "enabled" : "disabled");
+                    } else {
+                        final String stringValue = args[1].toLowerCase(Locale.ROOT);
+                        if (!stringValue.equals("true") && !stringValue.equals("false")) {
+                            Log.err("Usage: dump-on-error [true|false]");
+                            return;
+                        }
+                        final boolean value = Boolean.parseBoolean(stringValue);
+                        MindustryLoggerMod.setRecentDumpOnError(value);
+                        Log.info("Dumping recent events on error is now @.", value ? "enabled" : "disabled");
+                    }
+                    break;
+
+                case "stats": {
+                    if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+                        LoggerStats.resetAll();
+                        Log.info("The logging stats have been reset.");
+                        return;
+                    }
+                    int count = 5;
+                    if (args.length > 1) {
+                        try {
+                            count = Integer.parseInt(args[1]);
+                        } catch (final NumberFormatException e) {
+                            count = -1;
+                        }
+                        if (count <= 0) {
+                            Log.err("Usage: stats [count|reset]");
+                            return;
+                        }
+                    }
+                    final LoggerStats.Snapshot total = LoggerStats.getTotal();
+                    Log.info(">>> SLF4MD >>> Logging Stats >>>");
+                    Log.info(
+                            "Events: @ emitted, @ suppressed, @ rate limited, @ sampled out, @ characters formatted.",
+                            total.getEmitted(),
+                            total.getSuppressed(),
+                            total.getDropped(),
+                            total.getSampled(),
+                            total.getFormattedChars());
+                    MindustryLoggerMod.reportLatency("Handling", LoggerStats.getHandleLatency());
+                    MindustryLoggerMod.reportLatency("Console output", LoggerStats.getOutputLatency());
+                    final AsyncLogDispatcher dispatcher = MindustryLoggerMod.getAsyncDispatcher();
+                    if (dispatcher != null) {
+                        Log.info(
+                                "Async queue: @/@ events, @ dropped.",
+                                dispatcher.getQueueDepth(),
+                                dispatcher.getCapacity(),
+                                dispatcher.getDropped());
+                    }
+                    final FileSink sink = MindustryLoggerMod.getFileSink();
+                    if (sink != null) {
+                        Log.info("File sink: @ lines dropped.", sink.getDropped());
+                    }
+                    Log.info("Noisiest loggers:");
+                    for (final LoggerStats.Snapshot stats : LoggerStats.getNoisiest(count)) {
+                        MindustryLoggerMod.reportStats(stats);
+                    }
+                    Log.info("Noisiest mods:");
+                    for (final LoggerStats.Snapshot stats : LoggerStats.getNoisiestMods(count)) {
+                        MindustryLoggerMod.reportStats(stats);
+                    }
+                    break;
+                }
+
+                case "mdc-keys":
+                    if (args.length == 1) {
+                        final String[] keys = MindustryLoggerMod.getMdcKeys();
+                        if (keys.length == 0) {
+                            Log.info("No MDC keys are rendered.");
+                        } else {
+                            Log.info("Rendered MDC keys are @.", String.join(", ", keys));
+                        }
+                    } else if (args[1].equalsIgnoreCase("clear")) {
+                        MindustryLoggerMod.setMdcKeys();
+                        Log.info("MDC keys are no longer rendered.");
+                    } else {
+                        final String[] keys = Arrays.stream(args[1].split(","))
+                                .map(String::trim)
+                                .filter(key -> !key.isEmpty())
+                                .distinct()
+                                .toArray(String[]::new);
+                        MindustryLoggerMod.setMdcKeys(keys);
+                        Log.info("Rendered MDC keys are now @.", String.join(", ", keys));
+                    }
+                    break;
+
                 default:
                     Log.err("Unknown subcommand: @. Run 'slf4md' without arguments for help.", args[0]);
                     break;
             }
         });
     }
+
+    private static final class SchedulerHolder {
+
+        private static final ScheduledExecutorService SCHEDULER =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "SLF4MD-Scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
 }
@@ -27,16 +27,14 @@ package com.xpdustry.slf4md;
 
 import org.slf4j.ILoggerFactory;
 import org.slf4j.IMarkerFactory;
-import org.slf4j.helpers.BasicMarkerFactory;
-import org.slf4j.helpers.NOPMDCAdapter;
 import org.slf4j.spi.MDCAdapter;
 import org.slf4j.spi.SLF4JServiceProvider;
 
 public final class MindustryLoggerService implements SLF4JServiceProvider {
 
     private final ILoggerFactory loggerFactory = new MindustryLoggerFactory();
-    private final IMarkerFactory markerFactory = new BasicMarkerFactory();
-    private final MDCAdapter mdcAdapter = new NOPMDCAdapter();
+    private final IMarkerFactory markerFactory = new MindustryMarkerFactory();
+    private final MDCAdapter mdcAdapter = new MindustryMDCAdapter();
 
     @Override
     public ILoggerFactory getLoggerFactory() {
@@ -0,0 +1,244 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Marker;
+import org.slf4j.event.KeyValuePair;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * The fluent API builder of enabled statements, which hands its event straight to its logger.
+ * Suppliers are kept as is and only resolved once the markers of the event let it through.
+ * Like every builder, an instance is meant for a single statement on a single thread.
+ */
+final class MindustryLoggingEventBuilder implements LoggingEventBuilder {
+
+    private static final @Nullable Object[] EMPTY = new Object[0];
+
+    private final MindustryLogger logger;
+    private final Level level;
+    private @Nullable String message = null;
+    private @Nullable Supplier<String> messageSupplier = null;
+    private @Nullable Throwable cause = null;
+    private @Nullable List<Marker> markers = null;
+    private @Nullable Object[] arguments = EMPTY;
+    private int argumentCount = 0;
+    // Bit i is set when argument i is a supplier, the arguments past 64 are resolved when added
+    private long lazyArguments = 0L;
+    // Keys and values are interleaved, a value is a supplier when the bit of its pair is set
+    private @Nullable Object[] keyValues = EMPTY;
+    private int keyValueCount = 0;
+    private long lazyKeyValues = 0L;
+
+    MindustryLoggingEventBuilder(final MindustryLogger logger, final Level level) {
+        this.logger = logger;
+        this.level = level;
+    }
+
+    @Override
+    public LoggingEventBuilder setCause(final @Nullable Throwable cause) {
+        this.cause = cause;
+        return this;
+    }
+
+    @Override
+    public LoggingEventBuilder addMarker(final Marker marker) {
+        List<Marker> markers = this.markers;
+        if (markers == null) {
+            markers = this.markers = new ArrayList<>(2);
+        }
+        markers.add(marker);
+        return this;
+    }
+
+    @Override
+    public LoggingEventBuilder addArgument(final @Nullable Object argument) {
+        this.pushArgument(argument);
+        return this;
+    }
+
+    @Override
+    public LoggingEventBuilder addArgument(final Supplier<?> supplier) {
+        if (this.argumentCount < Long.SIZE) {
+            this.lazyArguments |= 1L << this.argumentCount;
+            this.pushArgument(supplier);
+        } else {
+            this.pushArgument(supplier.get());
+        }
+        return this;
+    }
+
+    private void pushArgument(final @Nullable Object argument) {
+        if (this.argumentCount == this.arguments.length) {
+            this.arguments = Arrays.copyOf(this.arguments, Math.max(4, this.argumentCount * 2));
+        }
+        this.arguments[this.argumentCount++] = argument;
+    }
+
+    @Override
+    public LoggingEventBuilder addKeyValue(final String key, final @Nullable Object value) {
+        this.pushKeyValue(key, value);
+        return this;
+    }
+
+    @Override
+    public LoggingEventBuilder addKeyValue(final String key, final Supplier<Object> supplier) {
+        if (this.keyValueCount < Long.SIZE) {
+            this.lazyKeyValues |= 1L << this.keyValueCount;
+            this.pushKeyValue(key, supplier);
+        } else {
+            this.pushKeyValue(key, supplier.get());
+        }
+        return this;
+    }
+
+    private void pushKeyValue(final String key, final @Nullable Object value) {
+        final int index = this.keyValueCount * 2;
+        if (index == this.keyValues.length) {
+            this.keyValues = Arrays.copyOf(this.keyValues, Math.max(4, index * 2));
+        }
+        this.keyValues[index] = key;
+        this.keyValues[index + 1] = value;
+        this.keyValueCount++;
+    }
+
+    @Override
+    public LoggingEventBuilder setMessage(final String message) {
+        this.message = message;
+        this.messageSupplier = null;
+        return this;
+    }
+
+    @Override
+    public LoggingEventBuilder setMessage(final Supplier<String> supplier) {
+        this.message = null;
+        this.messageSupplier = supplier;
+        return this;
+    }
+
+    @Override
+    public void log() {
+        final Boolean output = this.logger.isOutputEnabled(this.level, this.markers);
+        if (output == null) {
+            return;
+        }
+        this.logger.process(
+                this.level,
+                output,
+                this.resolveMessage(),
+                this.resolveArguments(),
+                this.cause,
+                this.resolveKeyValues());
+    }
+
+    @Override
+    public void log(final String message) {
+        this.setMessage(message);
+        this.log();
+    }
+
+    @Override
+    public void log(final String message, final @Nullable Object argument) {
+        this.setMessage(message);
+        this.pushArgument(argument);
+        this.log();
+    }
+
+    @Override
+    public void log(final String message, final @Nullable Object argument1, final @Nullable Object argument2) {
+        this.setMessage(message);
+        this.pushArgument(argument1);
+        this.pushArgument(argument2);
+        this.log();
+    }
+
+    @Override
+    public void log(final String message, final @Nullable Object... arguments) {
+        this.setMessage(message);
+        for (final Object argument : arguments) {
+            this.pushArgument(argument);
+        }
+        this.log();
+    }
+
+    @Override
+    public void log(final Supplier<String> supplier) {
+        this.setMessage(supplier);
+        this.log();
+    }
+
+    private String resolveMessage() {
+        final Supplier<String> supplier = this.messageSupplier;
+        final String message = supplier != null ? supplier.get() : this.message;
+        return message == null ? "null" : message;
+    }
+
+    private @Nullable Object @Nullable [] resolveArguments() {
+        final int count = this.argumentCount;
+        if (count == 0) {
+            return null;
+        }
+        // The array is owned by this builder, so suppliers are replaced by their value in place
+        final @Nullable Object[] arguments =
+                count == this.arguments.length ? this.arguments : Arrays.copyOf(this.arguments, count);
+        long lazy = this.lazyArguments;
+        while (lazy != 0L) {
+            final int index = Long.numberOfTrailingZeros(lazy);
+            arguments[index] = ((Supplier<?>) arguments[index]).get();
+            lazy &= lazy - 1L;
+        }
+        return arguments;
+    }
+
+    private @Nullable List<KeyValuePair> resolveKeyValues() {
+        final int count = this.keyValueCount;
+        if (count == 0) {
+            return null;
+        }
+        if (count == 1) {
+            return Collections.singletonList(this.resolveKeyValue(0));
+        }
+        final List<KeyValuePair> pairs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pairs.add(this.resolveKeyValue(i));
+        }
+        return pairs;
+    }
+
+    private KeyValuePair resolveKeyValue(final int index) {
+        final @Nullable Object value = this.keyValues[index * 2 + 1];
+        return new KeyValuePair(
+                (String) this.keyValues[index * 2],
+                (this.lazyKeyValues & 1L << index) != 0L ? ((Supplier<?>) value).get() : value);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.helpers.ThreadLocalMapOfStacks;
+import org.slf4j.spi.MDCAdapter;
+
+/**
+ * An {@link MDCAdapter} keeping an immutable context map per thread, replaced on each change. Reading the context
+ * is a single thread-local read, and the map itself can be handed to another thread as a snapshot without copying.
+ * Putting a {@code null} value removes the key.
+ */
+public final class MindustryMDCAdapter implements MDCAdapter {
+
+    private static final ThreadLocal<Map<String, String>> context = ThreadLocal.withInitial(Collections::emptyMap);
+
+    private final ThreadLocalMapOfStacks stacks = new ThreadLocalMapOfStacks();
+
+    /**
+     * Returns the immutable context map of the current thread.
+     */
+    static Map<String, String> getContextMap() {
+        return MindustryMDCAdapter.context.get();
+    }
+
+    @Override
+    public void put(final String key, final @Nullable String val) {
+        if (val == null) {
+            this.remove(key);
+            return;
+        }
+        final Map<String, String> current = MindustryMDCAdapter.context.get();
+        if (val.equals(current.get(key))) {
+            return;
+        }
+        final Map<String, String> copy = new HashMap<>(current);
+        copy.put(key, val);
+        MindustryMDCAdapter.context.set(Collections.unmodifiableMap(copy));
+    }
+
+    @Override
+    public @Nullable String get(final String key) {
+        return MindustryMDCAdapter.context.get().get(key);
+    }
+
+    @Override
+    public void remove(final String key) {
+        final Map<String, String> current = MindustryMDCAdapter.context.get();
+        if (!current.containsKey(key)) {
+            return;
+        }
+        if (current.size() == 1) {
+            MindustryMDCAdapter.context.remove();
+            return;
+        }
+        final Map<String, String> copy = new HashMap<>(current);
+        copy.remove(key);
+        MindustryMDCAdapter.context.set(Collections.unmodifiableMap(copy));
+    }
+
+    @Override
+    public void clear() {
+        MindustryMDCAdapter.context.remove();
+    }
+
+    @Override
+    public Map<String, String> getCopyOfContextMap() {
+        return new HashMap<>(MindustryMDCAdapter.context.get());
+    }
+
+    @Override
+    public void setContextMap(final Map<String, String> contextMap) {
+        if (contextMap.isEmpty()) {
+            MindustryMDCAdapter.context.remove();
+        } else {
+            MindustryMDCAdapter.context.set(Collections.unmodifiableMap(new HashMap<>(contextMap)));
+        }
+    }
+
+    @Override
+    public void pushByKey(final String key, final String value) {
+        this.stacks.pushByKey(key, value);
+    }
+
+    @Override
+    public @Nullable String popByKey(final String key) {
+        return this.stacks.popByKey(key);
+    }
+
+    @Override
+    public @Nullable Deque<String> getCopyOfDequeByKey(final String key) {
+        return this.stacks.getCopyOfDequeByKey(key);
+    }
+
+    @Override
+    public void clearDequeByKey(final String key) {
+        this.stacks.clearDequeByKey(key);
+    }
+}
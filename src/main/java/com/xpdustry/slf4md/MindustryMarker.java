@@ -0,0 +1,225 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Marker;
+
+/**
+ * A {@link Marker} with a dense integer id, shared by every marker of the same name. Each marker caches the ids
+ * of itself and its transitive references as a bitset, so marker filters are a few bit tests.
+ */
+final class MindustryMarker implements Marker {
+
+    private static final long serialVersionUID = -2849567615646933777L;
+
+    // Bumped on any reference change, since a change deep in the graph affects the closures above it
+    private static final AtomicInteger graphGeneration = new AtomicInteger();
+
+    private final String name;
+    private final int id;
+    private final List<Marker> references = new CopyOnWriteArrayList<>();
+    private transient volatile @Nullable Closure closure = null;
+
+    MindustryMarker(final String name, final int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Returns the ids of the marker and its transitive references as a bitset.
+     */
+    static long[] getClosure(final Marker marker) {
+        if (marker instanceof MindustryMarker) {
+            return ((MindustryMarker) marker).getClosure();
+        }
+        return MindustryMarker.computeClosure(marker);
+    }
+
+    private long[] getClosure() {
+        final int generation = MindustryMarker.graphGeneration.get();
+        Closure closure = this.closure;
+        if (closure == null || closure.generation != generation) {
+            closure = new Closure(generation, MindustryMarker.computeClosure(this));
+            this.closure = closure;
+        }
+        return closure.bits;
+    }
+
+    private static long[] computeClosure(final Marker marker) {
+        final Set<Marker> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        long[] bits = new long[0];
+        final Deque<Marker> pending = new ArrayDeque<>();
+        pending.push(marker);
+        while (!pending.isEmpty()) {
+            final Marker current = pending.pop();
+            if (!visited.add(current)) {
+                continue;
+            }
+            final int id = current instanceof MindustryMarker
+                    ? ((MindustryMarker) current).id
+                    : MindustryMarkerFactory.getMarkerId(current.getName());
+            if (id >>> 6 >= bits.length) {
+                final long[] grown = new long[(id >>> 6) + 1];
+                System.arraycopy(bits, 0, grown, 0, bits.length);
+                bits = grown;
+            }
+            bits[id >>> 6] |= 1L << id;
+            final Iterator<Marker> iterator = current.iterator();
+            while (iterator.hasNext()) {
+                pending.push(iterator.next());
+            }
+        }
+        return bits;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public void add(final Marker reference) {
+        if (reference == null) {
+            throw new IllegalArgumentException("A null value cannot be added to a Marker as reference.");
+        }
+        // No cycles and no duplicates, like BasicMarker
+        if (this.contains(reference) || reference.contains(this)) {
+            return;
+        }
+        this.references.add(reference);
+        MindustryMarker.graphGeneration.incrementAndGet();
+    }
+
+    @Override
+    public boolean remove(final Marker reference) {
+        final boolean removed = this.references.remove(reference);
+        if (removed) {
+            MindustryMarker.graphGeneration.incrementAndGet();
+        }
+        return removed;
+    }
+
+    @Override
+    @Deprecated
+    public boolean hasChildren() {
+        return this.hasReferences();
+    }
+
+    @Override
+    public boolean hasReferences() {
+        return !this.references.isEmpty();
+    }
+
+    @Override
+    public Iterator<Marker> iterator() {
+        return this.references.iterator();
+    }
+
+    @Override
+    public boolean contains(final Marker other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Other cannot be null");
+        }
+        if (this.equals(other)) {
+            return true;
+        }
+        for (final Marker reference : this.references) {
+            if (reference.contains(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Other cannot be null");
+        }
+        if (this.name.equals(name)) {
+            return true;
+        }
+        for (final Marker reference : this.references) {
+            if (reference.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Marker)) {
+            return false;
+        }
+        return this.name.equals(((Marker) o).getName());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (this.references.isEmpty()) {
+            return this.name;
+        }
+        final StringBuilder builder = new StringBuilder(this.name).append(" [ ");
+        final Iterator<Marker> iterator = this.references.iterator();
+        while (iterator.hasNext()) {
+            builder.append(iterator.next().getName());
+            if (iterator.hasNext()) {
+                builder.append(", ");
+            }
+        }
+        return builder.append(" ]").toString();
+    }
+
+    private static final class Closure {
+
+        private final int generation;
+        private final long[] bits;
+
+        private Closure(final int generation, final long[] bits) {
+            this.generation = generation;
+            this.bits = bits;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.IMarkerFactory;
+import org.slf4j.Marker;
+
+public final class MindustryMarkerFactory implements IMarkerFactory {
+
+    // Ids are global and never reused, so the bitsets compiled from marker rules stay valid
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private final Map<String, Marker> markers = new ConcurrentHashMap<>();
+
+    static int getMarkerId(final String name) {
+        final Integer id = MindustryMarkerFactory.ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        return MindustryMarkerFactory.ids.computeIfAbsent(name, k -> MindustryMarkerFactory.nextId.getAndIncrement());
+    }
+
+    @Override
+    public Marker getMarker(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Marker name cannot be null");
+        }
+        final Marker marker = this.markers.get(name);
+        if (marker != null) {
+            return marker;
+        }
+        return this.markers.computeIfAbsent(name, this::getDetachedMarker);
+    }
+
+    @Override
+    public boolean exists(final String name) {
+        return name != null && this.markers.containsKey(name);
+    }
+
+    @Override
+    public boolean detachMarker(final String name) {
+        return name != null && this.markers.remove(name) != null;
+    }
+
+    @Override
+    public Marker getDetachedMarker(final String name) {
+        return new MindustryMarker(name, MindustryMarkerFactory.getMarkerId(name));
+    }
+}
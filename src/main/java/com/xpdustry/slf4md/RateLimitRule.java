@@ -0,0 +1,94 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Lets through {@code rate} events per second with bursts of up to {@code burst} events.
+ * Written as {@code rate/burst} or just {@code rate} in the settings and commands.
+ */
+final class RateLimitRule {
+
+    // Limiters space events by a whole number of nanoseconds, a faster rate would round the interval to 0
+    static final int MAX_RATE = 1_000_000_000;
+
+    private final int rate;
+    private final int burst;
+
+    RateLimitRule(final int rate, final int burst) {
+        this.rate = rate;
+        this.burst = burst;
+    }
+
+    static @Nullable RateLimitRule parse(final String value) {
+        final int separator = value.indexOf('/');
+        final int rate;
+        final int burst;
+        try {
+            if (separator == -1) {
+                rate = Integer.parseInt(value.trim());
+                burst = rate;
+            } else {
+                rate = Integer.parseInt(value.substring(0, separator).trim());
+                burst = Integer.parseInt(value.substring(separator + 1).trim());
+            }
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+        return rate <= 0 || rate > MAX_RATE || burst <= 0 ? null : new RateLimitRule(rate, burst);
+    }
+
+    int getRate() {
+        return this.rate;
+    }
+
+    int getBurst() {
+        return this.burst;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RateLimitRule)) {
+            return false;
+        }
+        final RateLimitRule that = (RateLimitRule) o;
+        return this.rate == that.rate && this.burst == that.burst;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.rate + this.burst;
+    }
+
+    @Override
+    public String toString() {
+        return this.rate + "/" + this.burst;
+    }
+}
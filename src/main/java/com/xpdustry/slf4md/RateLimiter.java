@@ -0,0 +1,81 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.event.Level;
+
+/**
+ * Token buckets following a {@link RateLimitRule}, with one budget for {@code WARN} and {@code ERROR} events
+ * and another for the rest. Implemented as a generic cell rate algorithm, each bucket is a single theoretical
+ * arrival time, so a rejected event costs one volatile read and no allocation.
+ */
+final class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final RateLimitRule rule;
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong normal;
+    private final AtomicLong severe;
+    private final LongAdder dropped = new LongAdder();
+
+    RateLimiter(final RateLimitRule rule) {
+        this.rule = rule;
+        this.interval = RateLimiter.NANOS_PER_SECOND / rule.getRate();
+        this.tolerance = this.interval * (rule.getBurst() - 1);
+        final long now = System.nanoTime();
+        this.normal = new AtomicLong(now);
+        this.severe = new AtomicLong(now);
+    }
+
+    RateLimitRule getRule() {
+        return this.rule;
+    }
+
+    long getDropped() {
+        return this.dropped.sum();
+    }
+
+    boolean tryAcquire(final Level level) {
+        final AtomicLong bucket = level.toInt() >= Level.WARN.toInt() ? this.severe : this.normal;
+        final long now = System.nanoTime();
+        while (true) {
+            final long arrival = bucket.get();
+            // Compare differences, nanoTime values can overflow
+            final long start = arrival - now > 0 ? arrival : now;
+            if (start - now > this.tolerance) {
+                this.dropped.increment();
+                return false;
+            }
+            if (bucket.compareAndSet(arrival, start + this.interval)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import arc.util.Log;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.event.Level;
+
+/**
+ * A flight recorder of the most recent log events, captured at their own level whatever the level of their logger.
+ * Events are kept raw in a preallocated ring and only formatted when queried or dumped, so capturing an event that
+ * is never read costs no formatting. Arrays and JDK collections are copied when captured, the other arguments are
+ * rendered in their state at query time, and their {@code toString()} runs on the querying thread.
+ */
+final class RecentEvents {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final DateTimeFormatter DUMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss");
+    // An error storm only produces one dump per cooldown
+    private static final long DUMP_COOLDOWN_MILLIS = TimeUnit.MINUTES.toMillis(1L);
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Path dumpDirectory;
+    private final AtomicBoolean dumpScheduled = new AtomicBoolean();
+    private volatile long lastDump = 0L;
+    private volatile boolean dumpOnError;
+
+    RecentEvents(final int capacity, final Path dumpDirectory, final boolean dumpOnError) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive, got " + capacity);
+        }
+        // Rounded up to a power of two, so a sequence maps to its slot with a mask
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Slot[Math.max(size, 1)];
+        for (int i = 0; i < this.slots.length; i++) {
+            this.slots[i] = new Slot();
+        }
+        this.mask = this.slots.length - 1;
+        this.dumpDirectory = dumpDirectory;
+        this.dumpOnError = dumpOnError;
+    }
+
+    void record(
+            final long timestamp,
+            final MindustryLogger logger,
+            final Level level,
+            final String messagePattern,
+            final @Nullable Object @Nullable [] arguments,
+            final @Nullable Throwable throwable) {
+        final long sequence = this.sequence.getAndIncrement();
+        final Slot slot = this.slots[(int) sequence & this.mask];
+        final String thread = Thread.currentThread().getName();
+        final @Nullable Object @Nullable [] snapshot = RecentEvents.snapshotArguments(arguments);
+        // Uncontended unless a reader copies this very slot
+        synchronized (slot) {
+            slot.sequence = sequence;
+            slot.timestamp = timestamp;
+            slot.logger = logger;
+            slot.level = level;
+            slot.pattern = messagePattern;
+            slot.arguments = snapshot;
+            slot.throwable = throwable;
+            slot.thread = thread;
+        }
+        if (level == Level.ERROR && this.dumpOnError) {
+            this.scheduleDump();
+        }
+    }
+
+    int getCapacity() {
+        return this.slots.length;
+    }
+
+    boolean isDumpOnError() {
+        return this.dumpOnError;
+    }
+
+    void setDumpOnError(final boolean dumpOnError) {
+        this.dumpOnError = dumpOnError;
+    }
+
+    /**
+     * Returns up to {@code count} of the most recent events, from the oldest to the newest, optionally only from the
+     * loggers starting with {@code filter} and at or above {@code level}.
+     */
+    List<String> query(final int count, final @Nullable String filter, final @Nullable Level level) {
+        final String prefix = filter == null ? null : filter.toLowerCase(Locale.ROOT);
+        final List<String> lines = new ArrayList<>();
+        final long end = this.sequence.get();
+        final long start = Math.max(0L, end - this.slots.length);
+        final StringBuilder builder = new StringBuilder();
+        for (long i = end - 1; i >= start && lines.size() < count; i--) {
+            final Snapshot snapshot = this.snapshot(i);
+            if (snapshot == null
+                    || (level != null && snapshot.level.toInt() < level.toInt())
+                    || (prefix != null
+                            && !snapshot.logger.getName().toLowerCase(Locale.ROOT).startsWith(prefix))) {
+                continue;
+            }
+            builder.setLength(0);
+            RecentEvents.format(builder, snapshot);
+            lines.add(builder.toString());
+        }
+        Collections.reverse(lines);
+        return lines;
+    }
+
+    /**
+     * Writes every recorded event to a file, returns the number of events written.
+     */
+    int dump(final Path file) throws IOException {
+        final List<String> lines = this.query(Integer.MAX_VALUE, null, null);
+        final Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (final String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+        return lines.size();
+    }
+
+    Path getDumpDirectory() {
+        return this.dumpDirectory;
+    }
+
+    private void scheduleDump() {
+        final long now = System.currentTimeMillis();
+        if (now - this.lastDump < DUMP_COOLDOWN_MILLIS || !this.dumpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        this.lastDump = now;
+        // Off the logging thread, the error being logged is already recorded
+        MindustryLoggerMod.getScheduler().execute(() -> {
+            final String stamp = RecentEvents.DUMP_FORMAT.format(Instant.now().atZone(ZoneId.systemDefault()));
+            final Path file = this.dumpDirectory.resolve("error-" + stamp + ".log");
+            try {
+                final int dumped = this.dump(file);
+                Log.info("[SLF4MD] Dumped the @ most recent log events to @", dumped, file);
+            } catch (final IOException e) {
+                Log.err("[SLF4MD] Failed to dump the recent log events to " + file, e);
+            } finally {
+                this.dumpScheduled.set(false);
+            }
+        });
+    }
+
+    /**
+     * Copies the arrays and the JDK collections among the arguments, the containers most often reused and mutated
+     * after the call. Formatting stays deferred, so the other arguments are rendered as they are when queried.
+     */
+    private static @Nullable Object @Nullable [] snapshotArguments(final @Nullable Object @Nullable [] arguments) {
+        if (arguments == null) {
+            return null;
+        }
+        @Nullable Object[] snapshot = null;
+        for (int i = 0; i < arguments.length; i++) {
+            final Object argument = arguments[i];
+            final Object copy = RecentEvents.copyContainer(argument);
+            if (copy != argument) {
+                if (snapshot == null) {
+                    snapshot = arguments.clone();
+                }
+                snapshot[i] = copy;
+            }
+        }
+        return snapshot == null ? arguments : snapshot;
+    }
+
+    private static @Nullable Object copyContainer(final @Nullable Object argument) {
+        if (argument == null) {
+            return null;
+        }
+        final Class<?> type = argument.getClass();
+        try {
+            if (type.isArray()) {
+                final int length = Array.getLength(argument);
+                final Object copy = Array.newInstance(type.getComponentType(), length);
+                System.arraycopy(argument, 0, copy, 0, length);
+                return copy;
+            }
+            // Only the JDK ones, a copy would lose the toString() of a custom collection
+            if (!type.getName().startsWith("java.util.")) {
+                return argument;
+            }
+            if (argument instanceof Collection) {
+                return new ArrayList<>((Collection<?>) argument);
+            }
+            if (argument instanceof Map) {
+                return new LinkedHashMap<>((Map<?, ?>) argument);
+            }
+        } catch (final RuntimeException e) {
+            // Modified concurrently, kept as is
+        }
+        return argument;
+    }
+
+    private @Nullable Snapshot snapshot(final long sequence) {
+        final Slot slot = this.slots[(int) sequence & this.mask];
+        synchronized (slot) {
+            // Overwritten by a newer event, or claimed but not written yet
+            if (slot.sequence != sequence || slot.logger == null || slot.level == null || slot.pattern == null) {
+                return null;
+            }
+            return new Snapshot(
+                    slot.timestamp,
+                    slot.logger,
+                    slot.level,
+                    slot.pattern,
+                    slot.arguments,
+                    slot.throwable,
+                    slot.thread);
+        }
+    }
+
+    private static void format(final StringBuilder builder, final Snapshot snapshot) {
+        final @Nullable Object @Nullable [] arguments = snapshot.arguments;
+        Throwable throwable = snapshot.throwable;
+        int argumentCount = arguments == null ? 0 : arguments.length;
+        if (throwable == null
+                && arguments != null
+                && argumentCount != 0
+                && arguments[argumentCount - 1] instanceof Throwable) {
+            throwable = (Throwable) arguments[argumentCount - 1];
+            argumentCount--;
+        }
+        RecentEvents.TIMESTAMP_FORMAT.formatTo(
+                Instant.ofEpochMilli(snapshot.timestamp).atZone(ZoneId.systemDefault()), builder);
+        builder.append(" [").append(snapshot.level.name()).append("] [");
+        if (snapshot.thread != null) {
+            builder.append(snapshot.thread).append("] [");
+        }
+        builder.append(snapshot.logger.getName()).append("] ");
+        MessageTemplate.of(snapshot.pattern).format(builder, arguments, argumentCount, false);
+        if (throwable != null) {
+            builder.append(": ");
+            ThrowableRenderer.render(builder, throwable);
+        }
+    }
+
+    private static final class Slot {
+
+        private long sequence = -1L;
+        private long timestamp;
+        private @Nullable MindustryLogger logger;
+        private @Nullable Level level;
+        private @Nullable String pattern;
+        private @Nullable Object @Nullable [] arguments;
+        private @Nullable Throwable throwable;
+        private @Nullable String thread;
+    }
+
+    private static final class Snapshot {
+
+        private final long timestamp;
+        private final MindustryLogger logger;
+        private final Level level;
+        private final String pattern;
+        private final @Nullable Object @Nullable [] arguments;
+        private final @Nullable Throwable throwable;
+        private final @Nullable String thread;
+
+        private Snapshot(
+                final long timestamp,
+                final MindustryLogger logger,
+                final Level level,
+                final String pattern,
+                final @Nullable Object @Nullable [] arguments,
+                final @Nullable Throwable throwable,
+                final @Nullable String thread) {
+            this.timestamp = timestamp;
+            this.logger = logger;
+            this.level = level;
+            this.pattern = pattern;
+            this.arguments = arguments;
+            this.throwable = throwable;
+            this.thread = thread;
+        }
+    }
+}
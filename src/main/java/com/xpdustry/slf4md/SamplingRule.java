@@ -0,0 +1,187 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.event.Level;
+
+/**
+ * Lets through a random share of the events of some levels, written as {@code level rate} entries separated by
+ * commas, where the rate is a fraction such as {@code 1/100} or a percentage such as {@code 0.5%}.
+ * A level without an entry uses the rate of the closest level above it that has one, so sampling {@code debug}
+ * also samples {@code trace}, levels above every entry are never sampled.
+ */
+final class SamplingRule {
+
+    private static final Level[] LEVELS = Level.values();
+    // Events are kept when an unsigned random int is below the threshold, this one keeps them all
+    private static final long KEEP_ALL = 1L << 32;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100L);
+
+    // Indexed by level ordinal, the rates in canonical form and null for levels without an entry
+    private final @Nullable String[] rates;
+    private final long[] thresholds = new long[LEVELS.length];
+
+    private SamplingRule(final @Nullable String[] rates) {
+        this.rates = rates;
+        long threshold = KEEP_ALL;
+        // Ordinals go from ERROR to TRACE, so the entries are inherited downward
+        for (final Level level : LEVELS) {
+            final String rate = rates[level.ordinal()];
+            if (rate != null) {
+                threshold = SamplingRule.toThreshold(rate);
+            }
+            this.thresholds[level.ordinal()] = threshold;
+        }
+    }
+
+    static @Nullable SamplingRule parse(final String value) {
+        final @Nullable String[] rates = new String[LEVELS.length];
+        for (final String entry : value.split(",")) {
+            final String[] parts = entry.trim().split("\\s+");
+            if (parts.length != 2) {
+                return null;
+            }
+            final Level level = SamplingRule.parseLevel(parts[0]);
+            final String rate = SamplingRule.normalizeRate(parts[1]);
+            if (level == null || rate == null) {
+                return null;
+            }
+            rates[level.ordinal()] = rate;
+        }
+        return new SamplingRule(rates);
+    }
+
+    static @Nullable Level parseLevel(final String value) {
+        try {
+            return Level.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the rate in its canonical form, or null if it isn't a valid rate.
+     */
+    static @Nullable String normalizeRate(final String value) {
+        final String rate = value.trim();
+        try {
+            if (rate.endsWith("%")) {
+                final BigDecimal percent = new BigDecimal(rate.substring(0, rate.length() - 1).trim());
+                return percent.signum() > 0 && percent.compareTo(SamplingRule.HUNDRED) <= 0
+                        ? percent.stripTrailingZeros().toPlainString() + "%"
+                        : null;
+            }
+            final int separator = rate.indexOf('/');
+            if (separator == -1) {
+                return null;
+            }
+            final int numerator = Integer.parseInt(rate.substring(0, separator));
+            final int denominator = Integer.parseInt(rate.substring(separator + 1));
+            return numerator > 0 && numerator <= denominator ? numerator + "/" + denominator : null;
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long toThreshold(final String rate) {
+        final double share;
+        if (rate.endsWith("%")) {
+            share = Double.parseDouble(rate.substring(0, rate.length() - 1)) / 100D;
+        } else {
+            final int separator = rate.indexOf('/');
+            share = Integer.parseInt(rate.substring(0, separator))
+                    / (double) Integer.parseInt(rate.substring(separator + 1));
+        }
+        // Tiny rates still let something through
+        return Math.max(1L, Math.round(share * KEEP_ALL));
+    }
+
+    /**
+     * Returns a copy of this rule with the rate of a level replaced, or removed if null.
+     * Returns null if the copy has no entries left.
+     */
+    @Nullable SamplingRule with(final Level level, final @Nullable String rate) {
+        final @Nullable String[] rates = Arrays.copyOf(this.rates, this.rates.length);
+        rates[level.ordinal()] = rate;
+        for (final String entry : rates) {
+            if (entry != null) {
+                return new SamplingRule(rates);
+            }
+        }
+        return null;
+    }
+
+    static SamplingRule of(final Level level, final String rate) {
+        final @Nullable String[] rates = new String[LEVELS.length];
+        rates[level.ordinal()] = rate;
+        return new SamplingRule(rates);
+    }
+
+    /**
+     * Returns whether an event of the level is kept, called before anything is formatted.
+     */
+    boolean isSampled(final Level level) {
+        final long threshold = this.thresholds[level.ordinal()];
+        return threshold == KEEP_ALL || (ThreadLocalRandom.current().nextInt() & 0xFFFFFFFFL) < threshold;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SamplingRule)) {
+            return false;
+        }
+        return Arrays.equals(this.rates, ((SamplingRule) o).rates);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.rates);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (final Level level : LEVELS) {
+            final String rate = this.rates[level.ordinal()];
+            if (rate == null) {
+                continue;
+            }
+            if (builder.length() != 0) {
+                builder.append(", ");
+            }
+            builder.append(level.toString().toLowerCase(Locale.ROOT)).append(' ').append(rate);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Lets through at most {@code limit} similar messages of a logger per window of {@code windowSeconds}.
+ * Written as {@code limit/windowSeconds} in the settings and commands.
+ */
+final class SuppressionRule {
+
+    private final int limit;
+    private final int windowSeconds;
+
+    SuppressionRule(final int limit, final int windowSeconds) {
+        this.limit = limit;
+        this.windowSeconds = windowSeconds;
+    }
+
+    static @Nullable SuppressionRule parse(final String value) {
+        final int separator = value.indexOf('/');
+        if (separator == -1) {
+            return null;
+        }
+        final int limit;
+        final int windowSeconds;
+        try {
+            limit = Integer.parseInt(value.substring(0, separator).trim());
+            windowSeconds = Integer.parseInt(value.substring(separator + 1).trim());
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+        return limit <= 0 || windowSeconds <= 0 ? null : new SuppressionRule(limit, windowSeconds);
+    }
+
+    int getLimit() {
+        return this.limit;
+    }
+
+    long getWindowMillis() {
+        return this.windowSeconds * 1000L;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SuppressionRule)) {
+            return false;
+        }
+        final SuppressionRule that = (SuppressionRule) o;
+        return this.limit == that.limit && this.windowSeconds == that.windowSeconds;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.limit + this.windowSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return this.limit + "/" + this.windowSeconds;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Renders throwables like {@link Throwable#printStackTrace()}, without its locking and intermediate writers.
+ * Frames shared with the enclosing trace are elided with {@code ... N more}, frames from filtered packages are
+ * collapsed, and each trace can be cut after a maximum number of frames.
+ */
+final class ThrowableRenderer {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // Direct-mapped like the message templates, the same frames tend to show up again and again
+    private static final int FRAME_CACHE_SIZE = 4096;
+    private static final @Nullable CachedFrame[] FRAME_CACHE = new CachedFrame[FRAME_CACHE_SIZE];
+
+    private ThrowableRenderer() {}
+
+    static void render(final StringBuilder builder, final Throwable throwable) {
+        final int maxDepth = MindustryLoggerMod.getStackTraceMaxDepth();
+        final String[] filters = MindustryLoggerMod.getStackTraceFilters();
+        final Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.add(throwable);
+
+        builder.append(throwable).append(ThrowableRenderer.LINE_SEPARATOR);
+        final StackTraceElement[] trace = throwable.getStackTrace();
+        ThrowableRenderer.appendFrames(builder, trace, trace.length, "\t", maxDepth, filters);
+        for (final Throwable suppressed : throwable.getSuppressed()) {
+            ThrowableRenderer.renderEnclosed(
+                    builder, suppressed, trace, "Suppressed: ", "\t", maxDepth, filters, seen);
+        }
+        final Throwable cause = throwable.getCause();
+        if (cause != null) {
+            ThrowableRenderer.renderEnclosed(builder, cause, trace, "Caused by: ", "", maxDepth, filters, seen);
+        }
+    }
+
+    private static void renderEnclosed(
+            final StringBuilder builder,
+            final Throwable throwable,
+            final StackTraceElement[] enclosingTrace,
+            final String caption,
+            final String prefix,
+            final int maxDepth,
+            final String[] filters,
+            final Set<Throwable> seen) {
+        if (!seen.add(throwable)) {
+            builder.append(prefix)
+                    .append(caption)
+                    .append("[CIRCULAR REFERENCE: ")
+                    .append(throwable)
+                    .append(']')
+                    .append(ThrowableRenderer.LINE_SEPARATOR);
+            return;
+        }
+
+        final StackTraceElement[] trace = throwable.getStackTrace();
+        int m = trace.length - 1;
+        int n = enclosingTrace.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+            m--;
+            n--;
+        }
+        final int framesInCommon = trace.length - 1 - m;
+
+        builder.append(prefix).append(caption).append(throwable).append(ThrowableRenderer.LINE_SEPARATOR);
+        final String framePrefix = prefix + '\t';
+        ThrowableRenderer.appendFrames(builder, trace, m + 1, framePrefix, maxDepth, filters);
+        if (framesInCommon != 0) {
+            builder.append(framePrefix)
+                    .append("... ")
+                    .append(framesInCommon)
+                    .append(" more")
+                    .append(ThrowableRenderer.LINE_SEPARATOR);
+        }
+
+        for (final Throwable suppressed : throwable.getSuppressed()) {
+            ThrowableRenderer.renderEnclosed(
+                    builder, suppressed, trace, "Suppressed: ", framePrefix, maxDepth, filters, seen);
+        }
+        final Throwable cause = throwable.getCause();
+        if (cause != null) {
+            ThrowableRenderer.renderEnclosed(builder, cause, trace, "Caused by: ", prefix, maxDepth, filters, seen);
+        }
+    }
+
+    private static void appendFrames(
+            final StringBuilder builder,
+            final StackTraceElement[] trace,
+            final int end,
+            final String prefix,
+            final int maxDepth,
+            final String[] filters) {
+        int printed = 0;
+        int filtered = 0;
+        for (int i = 0; i < end; i++) {
+            if (maxDepth > 0 && printed >= maxDepth) {
+                ThrowableRenderer.appendFiltered(builder, prefix, filtered);
+                filtered = 0;
+                builder.append(prefix)
+                        .append("... ")
+                        .append(end - i)
+                        .append(" frames truncated")
+                        .append(ThrowableRenderer.LINE_SEPARATOR);
+                break;
+            }
+            if (ThrowableRenderer.isFiltered(trace[i], filters)) {
+                filtered++;
+                continue;
+            }
+            ThrowableRenderer.appendFiltered(builder, prefix, filtered);
+            filtered = 0;
+            builder.append(prefix)
+                    .append("at ")
+                    .append(ThrowableRenderer.getFrameString(trace[i]))
+                    .append(ThrowableRenderer.LINE_SEPARATOR);
+            printed++;
+        }
+        ThrowableRenderer.appendFiltered(builder, prefix, filtered);
+    }
+
+    private static void appendFiltered(final StringBuilder builder, final String prefix, final int filtered) {
+        if (filtered != 0) {
+            builder.append(prefix)
+                    .append("... ")
+                    .append(filtered)
+                    .append(" filtered frames")
+                    .append(ThrowableRenderer.LINE_SEPARATOR);
+        }
+    }
+
+    private static boolean isFiltered(final StackTraceElement element, final String[] filters) {
+        if (filters.length == 0) {
+            return false;
+        }
+        final String name = element.getClassName();
+        for (final String filter : filters) {
+            if (name.startsWith(filter)
+                    && (name.length() == filter.length() || name.charAt(filter.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getFrameString(final StackTraceElement element) {
+        final int hash = element.hashCode();
+        final int index = (hash ^ (hash >>> 16)) & (ThrowableRenderer.FRAME_CACHE_SIZE - 1);
+        final CachedFrame cached = ThrowableRenderer.FRAME_CACHE[index];
+        if (cached != null && cached.element.equals(element)) {
+            return cached.rendered;
+        }
+        final CachedFrame frame = new CachedFrame(element, element.toString());
+        ThrowableRenderer.FRAME_CACHE[index] = frame;
+        return frame.rendered;
+    }
+
+    private static final class CachedFrame {
+
+        private final StackTraceElement element;
+        private final String rendered;
+
+        private CachedFrame(final StackTraceElement element, final String rendered) {
+            this.element = element;
+            this.rendered = rendered;
+        }
+    }
+}
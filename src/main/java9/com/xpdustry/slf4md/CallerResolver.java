@@ -0,0 +1,65 @@
+/*
+ * This file is part of SLF4MD. A basic SLF4J implementation for Mindustry.
+ *
+ * MIT License
+ *
+ * Copyright (c) 2024-2026 Xpdustry
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.xpdustry.slf4md;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Finds the class that asked for a logger or the location of a log call, walking the stack lazily until the caller
+ * is found.
+ */
+final class CallerResolver {
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    // Locations only need names, which spares the class references
+    private static final StackWalker LOCATION_WALKER = StackWalker.getInstance();
+    // Deep enough for the SLF4J, JUL bridge and SLF4MD frames above the caller
+    private static final int LOCATION_MAX_DEPTH = 32;
+
+    private CallerResolver() {}
+
+    /**
+     * Returns the first class of the current stack outside of SLF4MD and the logging frameworks.
+     */
+    static @Nullable Class<?> findCaller() {
+        return CallerResolver.WALKER.walk(frames -> frames.<Class<?>>map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> !MindustryLoggerFactory.isLoggingClass(type.getName()))
+                .findFirst()
+                .orElse(null));
+    }
+
+    /**
+     * Returns the location of the first frame of the current stack outside of SLF4MD and the logging frameworks.
+     */
+    static @Nullable String findLocation() {
+        return CallerResolver.LOCATION_WALKER.walk(frames -> frames.limit(LOCATION_MAX_DEPTH)
+                .filter(frame -> !MindustryLoggerFactory.isLoggingClass(frame.getClassName()))
+                .findFirst()
+                .map(frame ->
+                        CallerLocations.render(frame.getClassName(), frame.getMethodName(), frame.getLineNumber()))
+                .orElse(null));
+    }
+}